@@ -2,11 +2,16 @@ package logicsimulator;
 
 import logicsimulator.core.LogicCircuit;
 import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.io.CircuitFiles;
 import logicsimulator.ui.DrawableGate;
 import logicsimulator.ui.GateSelectionWindow;
 import logicsimulator.ui.MainWindow;
 import processing.core.PApplet;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class LogicSimulator extends PApplet {
     private final int colorWhite = color(255, 255, 255);
 
@@ -14,6 +19,11 @@ public class LogicSimulator extends PApplet {
     private MainWindow mainWindow;
     private GateSelectionWindow gateSelectionWindow;
     private LogicCircuit circuit = new LogicCircuitSimulation();
+    // Die Dateiauswahl ruft saveCircuit() und loadCircuit() in einem eigenen Thread auf. Die Schaltung wird deshalb nur
+    // in draw() gespeichert bzw. ausgetauscht und die Meldung erst dort angezeigt.
+    private volatile Path pendingSavePath;
+    private volatile LogicCircuit pendingCircuit;
+    private volatile String pendingMessage;
 
     public static void main(String[] args) {
         PApplet.runSketch(new String[] {""}, new LogicSimulator());
@@ -29,11 +39,12 @@ public class LogicSimulator extends PApplet {
         surface.setTitle("Logic Circuit Simulator");
         surface.setIcon(loadImage("icon.png"));
         drawableGate = new DrawableGate(super.g, loadImage("enabled_output.png"));
-        mainWindow = new MainWindow(super.g, circuit, drawableGate);
+        mainWindow = new MainWindow(super.g, this::createGraphics, circuit, drawableGate);
         gateSelectionWindow = new GateSelectionWindow(super.g, circuit, drawableGate);
     }
 
     public void draw() {
+        handlePendingFileOperations();
         background(colorWhite);
         mainWindow.draw(width, height, mouseX, mouseY);
         gateSelectionWindow.draw(width, height, mouseX, mouseY);
@@ -51,9 +62,58 @@ public class LogicSimulator extends PApplet {
 
         // Bisher aufgebaute Schaltung löschen
         if (lowerCaseKey == 'c') {
-            circuit = new LogicCircuitSimulation();
-            mainWindow = new MainWindow(super.g, circuit, drawableGate);
-            gateSelectionWindow = new GateSelectionWindow(super.g, circuit, drawableGate);
+            setCircuit(new LogicCircuitSimulation());
+        } else if (lowerCaseKey == 's') {
+            selectOutput("Schaltung speichern", "saveCircuit");
+        } else if (lowerCaseKey == 'l') {
+            selectInput("Schaltung laden", "loadCircuit");
+        }
+    }
+
+    private void setCircuit(LogicCircuit circuit) {
+        this.circuit = circuit;
+        mainWindow = new MainWindow(super.g, this::createGraphics, circuit, drawableGate);
+        gateSelectionWindow = new GateSelectionWindow(super.g, circuit, drawableGate);
+    }
+
+    private void handlePendingFileOperations() {
+        Path savePath = pendingSavePath;
+        if (savePath != null) {
+            pendingSavePath = null;
+            try {
+                CircuitFiles.save(circuit, savePath);
+                mainWindow.showMessage("Die Schaltung wurde erfolgreich gespeichert.");
+            } catch (IOException e) {
+                mainWindow.showMessage("Die Schaltung konnte nicht gespeichert werden!");
+            }
+        }
+        LogicCircuit loadedCircuit = pendingCircuit;
+        if (loadedCircuit != null) {
+            pendingCircuit = null;
+            setCircuit(loadedCircuit);
+        }
+        String message = pendingMessage;
+        if (message != null) {
+            pendingMessage = null;
+            mainWindow.showMessage(message);
+        }
+    }
+
+    // Das Speichern liest die Schaltung und muss deshalb im Thread von draw() erfolgen
+    @SuppressWarnings("unused")
+    public void saveCircuit(File selection) {
+        if (selection != null) pendingSavePath = selection.toPath();
+    }
+
+    // Die Datei wird noch im Thread der Dateiauswahl gelesen, nur der Austausch der Schaltung erfolgt in draw()
+    @SuppressWarnings("unused")
+    public void loadCircuit(File selection) {
+        if (selection != null) {
+            try {
+                pendingCircuit = CircuitFiles.load(selection.toPath());
+            } catch (IOException e) {
+                pendingMessage = "Die Schaltung konnte nicht geladen werden!";
+            }
         }
     }
 }
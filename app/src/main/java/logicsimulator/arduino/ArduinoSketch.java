@@ -1,34 +1,234 @@
 package logicsimulator.arduino;
 
+import logicsimulator.core.Implicant;
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.Point;
 import logicsimulator.core.TableOfValues;
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public record ArduinoSketch(TableOfValues table, Path path) {
-    private String getMintermForSketch(List<Boolean> valueRow) {
-        return IntStream.range(0, valueRow.size() - 1)
-                .mapToObj(i -> valueRow.get(i) ? "inputStates[%d]".formatted(i) : "!inputStates[%d]".formatted(i))
-                .collect(Collectors.joining(" && "));
+// Arduino-Sketch für die Gatter an den Positionen "outputs" (jedes Gatter erhält einen eigenen Ausgangs-Pin).
+// Die Ausgangswerte können auf verschiedene Arten berechnet werden (siehe CodeStrategy), gespeichert wird die
+// Variante mit dem (geschätzt) kleinsten Programm. Die Eingänge werden pro Durchlauf von loop() nur einmal gelesen.
+public record ArduinoSketch(LogicCircuit circuit, List<Point> outputs, Path path) {
+    // Die Eingänge werden ab Pin 2 aufwärts, die Ausgänge ab Pin 12 abwärts angeschlossen. Mit den 11 Pins sind also
+    // höchstens 10 Eingänge möglich, die Wertetabelle (und damit auch das Bitfeld mit höchstens 128 Byte pro Ausgang)
+    // bleibt deshalb immer klein genug für alle Varianten.
+    private static final int FIRST_INPUT_PIN = 2, FIRST_OUTPUT_PIN = 12;
+
+    // Grobe Schätzungen für den erzeugten Maschinencode (in Bytes)
+    private static final int OPERAND_SIZE = 6, STATEMENT_SIZE = 4, LOOKUP_CODE_SIZE = 30;
+
+    private static String template; // Wird beim ersten Speichern aus dem Classpath gelesen
+
+    public ArduinoSketch {
+        if (outputs.isEmpty()) throw new IllegalArgumentException("outputs must not be empty");
+        for (Point pos : outputs) {
+            if (pos == null || circuit.getGateAt(pos) == null) throw new IllegalArgumentException("invalid position");
+        }
+        outputs = List.copyOf(outputs);
+    }
+
+    public ArduinoSketch(LogicCircuit circuit, Point pos, Path path) {
+        this(circuit, Collections.singletonList(pos), path);
+    }
+
+    // Sketch für alle Ausgänge der Schaltung (nach Namen sortiert)
+    public static ArduinoSketch forAllOutputs(LogicCircuit circuit, Path path) {
+        return new ArduinoSketch(circuit, getPositionsSortedByName(circuit, GateType.OUTPUT), path);
+    }
+
+    private static List<Point> getPositionsSortedByName(LogicCircuit circuit, GateType type) {
+        return circuit.getGatePositions().stream().filter(p -> circuit.getGateAt(p).getType() == type)
+                .sorted(Comparator.comparing(p -> circuit.getGateAt(p).getName().orElseThrow())).toList();
+    }
+
+    // Liefert den Code für die Variante "strategy", falls sie für diese Schaltung möglich ist
+    public Optional<SketchCode> generateCode(CodeStrategy strategy) {
+        checkPins();
+        return generateCode(strategy, strategy == CodeStrategy.NETLIST ? Optional.empty() : circuit.getTableOfValues(outputs));
+    }
+
+    // Die Wertetabelle wird für alle Varianten nur einmal berechnet
+    public SketchCode selectCode() {
+        checkPins();
+        Optional<TableOfValues> table = circuit.getTableOfValues(outputs);
+        return Arrays.stream(CodeStrategy.values()).map(strategy -> generateCode(strategy, table)).flatMap(Optional::stream)
+                .min(Comparator.comparingInt(SketchCode::estimatedSize)).orElseThrow();
+    }
+
+    private Optional<SketchCode> generateCode(CodeStrategy strategy, Optional<TableOfValues> table) {
+        return switch (strategy) {
+            case DISJUNCTIVE_FORM -> table.map(this::generateDisjunctiveForms);
+            case NETLIST -> Optional.of(generateNetlist());
+            case LOOKUP_TABLE -> table.map(this::generateLookupTables);
+        };
+    }
+
+    // Für jeden Ein- und Ausgang muss ein eigener Pin frei sein
+    private void checkPins() {
+        if (FIRST_INPUT_PIN + getInputCount() > FIRST_OUTPUT_PIN - outputs.size() + 1) throw new IllegalArgumentException("not enough pins");
     }
 
-    private String getDisjunctiveNormalFormForSketch() {
-        // Ist der Funktionswert immer "falsch", soll "false" zurückgegeben werden, damit der Code gültig bleibt
-        if (table.values().stream().noneMatch(valueRow -> valueRow.get(valueRow.size() - 1))) return "false";
+    private int getInputCount() {
+        return (int) circuit.getGatePositions().stream().filter(p -> circuit.getGateAt(p).getType() == GateType.INPUT).count();
+    }
 
-        return table.values().stream().filter(valueRow -> valueRow.get(valueRow.size() - 1))
-                .map(this::getMintermForSketch)
-                .map(minterm -> "(" + minterm + ")")
-                .collect(Collectors.joining(" || "));
+    // Verwendet die minimierten disjunktiven Formen, damit loop() möglichst wenige Terme auswerten muss
+    private SketchCode generateDisjunctiveForms(TableOfValues table) {
+        StringBuilder statements = new StringBuilder();
+        int size = 0;
+        for (int output = 0; output < table.getOutputCount(); output++) {
+            List<Implicant> implicants = table.getMinimalImplicants(output);
+            if (output > 0) statements.append("\n  ");
+            statements.append("outputStates[%d] = %s;".formatted(output, getDisjunctiveForm(table, implicants)));
+            size += STATEMENT_SIZE + OPERAND_SIZE * implicants.stream().mapToInt(Implicant::getLiteralCount).sum();
+        }
+        return new SketchCode(CodeStrategy.DISJUNCTIVE_FORM, "", statements.toString(), size);
+    }
+
+    private static String getDisjunctiveForm(TableOfValues table, List<Implicant> implicants) {
+        // Ist der Funktionswert immer "falsch" bzw. "wahr", soll "false" bzw. "true" verwendet werden,
+        // damit der Code gültig bleibt
+        if (implicants.isEmpty()) return "false";
+        if (implicants.get(0).getLiteralCount() == 0) return "true";
+
+        StringBuilder s = new StringBuilder();
+        for (Implicant implicant : implicants) {
+            if (!s.isEmpty()) s.append(" || ");
+            s.append('(');
+            boolean firstLiteral = true;
+            for (int i = 0; i < table.getInputCount(); i++) {
+                int literal = implicant.getLiteral(table.getInputCount(), i);
+                if (literal < 0) continue;
+                if (!firstLiteral) s.append(" && ");
+                s.append(literal == 1 ? "inputStates[%d]".formatted(i) : "!inputStates[%d]".formatted(i));
+                firstLiteral = false;
+            }
+            s.append(')');
+        }
+        return s.toString();
+    }
+
+    // Die Zeilennummer der Wertetabelle ergibt sich aus den Eingängen (der erste Eingang ist das höchstwertige Bit) und
+    // wird für alle Ausgänge nur einmal berechnet. Bit "row % 8" von Byte "row / 8" enthält den Ausgangswert.
+    private SketchCode generateLookupTables(TableOfValues table) {
+        int byteCount = (int) Math.max(1, table.getRowCount() / 8);
+        String rows = IntStream.range(0, table.getOutputCount()).mapToObj(output -> IntStream.range(0, byteCount)
+                .mapToObj(i -> "0x%02X".formatted((table.getOutputWord(output, i / 8) >>> (8 * (i % 8))) & 0xFF))
+                .collect(Collectors.joining(", ", "{", "}"))).collect(Collectors.joining(",\n  "));
+
+        String declarations = "const uint8_t truthTable[outputCount][%d] PROGMEM = {\n  %s\n};".formatted(byteCount, rows);
+        String statements = """
+                unsigned long row = 0;
+                  for (int i = 0; i < inputCount; i++) {
+                    row = (row << 1) | inputStates[i];
+                  }
+                  for (int i = 0; i < outputCount; i++) {
+                    outputStates[i] = (pgm_read_byte(&truthTable[i][row >> 3]) >> (row & 7)) & 1;
+                  }""";
+        return new SketchCode(CodeStrategy.LOOKUP_TABLE, declarations, statements,
+                table.getOutputCount() * byteCount + LOOKUP_CODE_SIZE);
+    }
+
+    // Jedes Gatter wird genau einmal (nach seinen Eingängen) berechnet, auch wenn es mehrere Gatter oder Ausgänge ansteuert
+    private SketchCode generateNetlist() {
+        Map<Point, String> operands = new HashMap<>();
+        List<Point> inputPositions = getPositionsSortedByName(circuit, GateType.INPUT);
+        for (int i = 0; i < inputPositions.size(); i++) operands.put(inputPositions.get(i), "inputStates[%d]".formatted(i));
+
+        StringBuilder s = new StringBuilder();
+        int size = 0, gateCount = 0;
+        for (Point pos : getTopologicalOrder()) {
+            Gate gate = circuit.getGateAt(pos);
+            if (gate.getType() == GateType.INPUT) continue;
+            List<String> inputs = gate.getInputs().stream().map(operands::get).toList();
+            String expression = switch (gate.getType()) {
+                case AND -> inputs.isEmpty() ? "false" : String.join(" && ", inputs);
+                case OR -> inputs.isEmpty() ? "false" : String.join(" || ", inputs);
+                // Ein XOR-Gatter ist genau dann wahr, wenn genau einer seiner Eingänge wahr ist
+                case EXCLUSIVE_OR -> inputs.size() < 2 ? inputs.stream().findFirst().orElse("false")
+                        : "(%s) == 1".formatted(String.join(" + ", inputs));
+                case NOT -> inputs.isEmpty() ? "true" : "!" + inputs.get(0);
+                case OUTPUT -> inputs.isEmpty() ? "false" : inputs.get(0);
+                case INPUT -> throw new IllegalStateException();
+            };
+            String name = "gate" + gateCount++;
+            operands.put(pos, name);
+            s.append("bool ").append(name).append(" = ").append(expression).append(";\n  ");
+            size += STATEMENT_SIZE + OPERAND_SIZE * inputs.size();
+        }
+        for (int output = 0; output < outputs.size(); output++) {
+            if (output > 0) s.append("\n  ");
+            s.append("outputStates[%d] = %s;".formatted(output, operands.get(outputs.get(output))));
+            size += STATEMENT_SIZE;
+        }
+        return new SketchCode(CodeStrategy.NETLIST, "", s.toString(), size);
+    }
+
+    // Alle Gatter, von denen die Ausgänge abhängen, in Postorder
+    private List<Point> getTopologicalOrder() {
+        List<Point> order = new ArrayList<>();
+        Set<Point> visited = new HashSet<>();
+        Deque<Point> stack = new ArrayDeque<>();
+        Deque<Iterator<Point>> inputs = new ArrayDeque<>();
+        for (Point root : outputs) {
+            if (!visited.add(root)) continue;
+            stack.push(root);
+            inputs.push(circuit.getGateAt(root).getInputs().iterator());
+            while (!stack.isEmpty()) {
+                if (inputs.peek().hasNext()) {
+                    Point input = inputs.peek().next();
+                    if (visited.add(input)) {
+                        stack.push(input);
+                        inputs.push(circuit.getGateAt(input).getInputs().iterator());
+                    }
+                } else {
+                    order.add(stack.pop());
+                    inputs.pop();
+                }
+            }
+        }
+        return order;
+    }
+
+    public String getSourceCode() throws IOException {
+        checkPins();
+        int inputCount = getInputCount();
+        String inputPins = IntStream.range(0, inputCount).mapToObj(i -> String.valueOf(FIRST_INPUT_PIN + i))
+                .collect(Collectors.joining(", "));
+        String outputPins = IntStream.range(0, outputs.size()).mapToObj(i -> String.valueOf(FIRST_OUTPUT_PIN - i))
+                .collect(Collectors.joining(", "));
+        SketchCode code = selectCode();
+
+        return getTemplate().replace("INPUT_COUNT", String.valueOf(inputCount))
+                .replace("INPUT_PINS", inputPins)
+                .replace("OUTPUT_COUNT", String.valueOf(outputs.size()))
+                .replace("OUTPUT_PINS", outputPins)
+                .replace("DECLARATIONS", code.declarations())
+                .replace("OUTPUT_CODE", code.statements());
     }
 
     public void saveToDisk() throws IOException {
-        String template = Files.readString(Path.of("src/main/resources/arduino_sketch_template.txt"));
-        String sourceCode = template.replace("DISJUNCTIVE_NORMAL_FORM", getDisjunctiveNormalFormForSketch());
-        Files.writeString(path, sourceCode);
+        Files.writeString(path, getSourceCode());
+    }
+
+    private static synchronized String getTemplate() throws IOException {
+        if (template == null) {
+            try (InputStream in = ArduinoSketch.class.getResourceAsStream("/arduino_sketch_template.txt")) {
+                if (in == null) throw new IOException("sketch template not found");
+                template = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return template;
     }
 }
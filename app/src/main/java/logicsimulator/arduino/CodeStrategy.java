@@ -0,0 +1,11 @@
+package logicsimulator.arduino;
+
+// Möglichkeiten, den Ausgangswert im Arduino-Sketch zu berechnen
+public enum CodeStrategy {
+    // Minimierte disjunktive Form als ein einziger Ausdruck
+    DISJUNCTIVE_FORM,
+    // Die Gatter in topologischer Reihenfolge, jedes Gatter als eigene Variable
+    NETLIST,
+    // Wertetabelle als Bitfeld im Flash-Speicher (PROGMEM), die Eingänge bilden den Index
+    LOOKUP_TABLE
+}
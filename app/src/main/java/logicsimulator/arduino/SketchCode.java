@@ -0,0 +1,6 @@
+package logicsimulator.arduino;
+
+// Erzeugter Code für den Arduino-Sketch: "declarations" steht vor setup(), "statements" in loop() und muss alle Werte
+// im Feld "outputStates" (ein Eintrag pro Ausgang) setzen. "estimatedSize" ist eine grobe Schätzung der Programmgröße
+// in Bytes.
+public record SketchCode(CodeStrategy strategy, String declarations, String statements, int estimatedSize) {}
@@ -0,0 +1,189 @@
+package logicsimulator.cli;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.Netlist;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
+import logicsimulator.io.CircuitFiles;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Simulation ohne grafische Oberfläche: Liest Belegungen der Eingänge als Datenstrom und schreibt für jede Belegung
+// die Werte aller Ausgänge (nach Namen sortiert). Die erste Zeile der Eingabe enthält die Namen der Eingänge, jede
+// weitere Zeile eine Belegung (0 oder 1 pro Spalte, Trennzeichen sind optional). Eingänge ohne eigene Spalte behalten
+// ihren Wert aus der Schaltung. Je 64 Belegungen werden bitparallel mit der kompilierten Schaltung berechnet.
+//
+// Aufruf: java -jar app-headless.jar <Schaltung> [<Belegungen>]   (ohne Datei bzw. mit "-" wird stdin gelesen)
+// Die Schaltung kann in jedem Format angegeben werden, das CircuitFiles laden kann (z. B. auch .bench oder .blif).
+public final class BatchSimulator {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Netlist netlist;
+    private final Map<String, Integer> inputIds = new HashMap<>();
+    private final long[] initialWords;
+    private final int[] outputIds;
+    private final byte[] header;
+
+    public BatchSimulator(LogicCircuit circuit) {
+        Map<Point, Gate> gates = circuit.getGatePositions().stream().collect(Collectors.toMap(Function.identity(), circuit::getGateAt));
+        netlist = Netlist.compile(gates);
+
+        initialWords = new long[netlist.size()];
+        List<String> outputNames = new ArrayList<>();
+        List<Integer> outputIdList = new ArrayList<>();
+        gates.entrySet().stream().sorted(Comparator.comparing(entry -> entry.getValue().getName().orElse(""))).forEach(entry -> {
+            Gate gate = entry.getValue();
+            int id = netlist.getId(entry.getKey());
+            if (gate.getType() == GateType.INPUT) {
+                inputIds.put(gate.getName().orElseThrow(), id);
+                initialWords[id] = gate.getOutput() ? -1L : 0;
+            } else if (gate.getType() == GateType.OUTPUT) {
+                outputNames.add(gate.getName().orElseThrow());
+                outputIdList.add(id);
+            }
+        });
+        outputIds = outputIdList.stream().mapToInt(Integer::intValue).toArray();
+        header = (String.join(" ", outputNames) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: BatchSimulator <circuit file> [<input vector file> | -]");
+            System.exit(2);
+        }
+        try (ReadableByteChannel in = args.length == 1 || args[1].equals("-")
+                     ? new FileInputStream(FileDescriptor.in).getChannel() : FileChannel.open(Path.of(args[1]));
+             WritableByteChannel out = new FileOutputStream(FileDescriptor.out).getChannel()) {
+            new BatchSimulator(CircuitFiles.load(Path.of(args[0]))).run(in, out);
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Liefert die Anzahl der berechneten Belegungen
+    public long run(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        return new Run(in, out).run();
+    }
+
+    // Zustand eines Durchlaufs (die kompilierte Schaltung selbst wird nur gelesen)
+    private final class Run {
+        private final ReadableByteChannel in;
+        private final WritableByteChannel out;
+        private final ByteBuffer inputBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer outputBuffer;
+        private final long[] words = initialWords.clone();
+        private int[] columnIds; // Ist null, solange die Kopfzeile noch nicht gelesen wurde
+        private final StringBuilder headerLine = new StringBuilder();
+        private int column = 0, lane = 0;
+        private long lineNumber = 1, vectorCount = 0;
+        private boolean comment = false, lineHasValues = false;
+
+        private Run(ReadableByteChannel in, WritableByteChannel out) {
+            this.in = in;
+            this.out = out;
+            outputBuffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, 2 * header.length + 2 * outputIds.length));
+        }
+
+        private long run() throws IOException {
+            write(header);
+            byte[] bytes = inputBuffer.array();
+            while (in.read(inputBuffer) >= 0) {
+                int length = inputBuffer.position();
+                for (int i = 0; i < length; i++) accept(bytes[i]);
+                inputBuffer.clear();
+            }
+            accept((byte) '\n'); // Die letzte Zeile muss nicht mit einem Zeilenumbruch enden
+            if (columnIds == null) throw new IOException("input names are missing");
+            if (lane > 0) evaluate();
+            flush();
+            return vectorCount;
+        }
+
+        private void accept(byte b) throws IOException {
+            if (b == '\n') {
+                endLine();
+            } else if (comment || b == '\r') {
+                return;
+            } else if (b == '#') {
+                comment = true;
+            } else if (columnIds == null) {
+                headerLine.append((char) (b & 0xFF));
+            } else if (b == '0' || b == '1') {
+                if (column == columnIds.length) throw new IOException("line %d: too many values".formatted(lineNumber));
+                if (b == '1') words[columnIds[column]] |= 1L << lane;
+                column++;
+                lineHasValues = true;
+            } else if (b != ' ' && b != '\t' && b != ',') {
+                throw new IOException("line %d: invalid value '%c'".formatted(lineNumber, (char) (b & 0xFF)));
+            }
+        }
+
+        private void endLine() throws IOException {
+            if (columnIds == null) {
+                parseHeader();
+            } else if (lineHasValues) {
+                if (column != columnIds.length) throw new IOException("line %d: too few values".formatted(lineNumber));
+                vectorCount++;
+                if (++lane == 64) evaluate();
+            }
+            column = 0;
+            lineHasValues = comment = false;
+            lineNumber++;
+        }
+
+        private void parseHeader() throws IOException {
+            String[] names = new String(headerLine.toString().getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8)
+                    .trim().split("[\\s,]+");
+            headerLine.setLength(0);
+            if (names[0].isEmpty()) return; // Leere Zeilen vor der Kopfzeile überspringen
+
+            columnIds = new int[names.length];
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < names.length; i++) {
+                Integer id = inputIds.get(names[i]);
+                if (id == null) throw new IOException("line %d: unknown input '%s'".formatted(lineNumber, names[i]));
+                if (!seen.add(names[i])) throw new IOException("line %d: duplicate input '%s'".formatted(lineNumber, names[i]));
+                columnIds[i] = id;
+                words[id] = 0;
+            }
+        }
+
+        // Berechnet die gesammelten Belegungen und schreibt eine Zeile pro Belegung
+        private void evaluate() throws IOException {
+            netlist.evaluate(words);
+            int lineLength = 2 * outputIds.length;
+            for (int i = 0; i < lane; i++) {
+                if (outputBuffer.remaining() < lineLength + 1) flush();
+                for (int k = 0; k < outputIds.length; k++) {
+                    if (k > 0) outputBuffer.put((byte) ' ');
+                    outputBuffer.put((byte) ('0' + (int) (words[outputIds[k]] >>> i & 1)));
+                }
+                outputBuffer.put((byte) '\n');
+            }
+            for (int id : columnIds) words[id] = 0;
+            lane = 0;
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            if (outputBuffer.remaining() < bytes.length) flush();
+            outputBuffer.put(bytes);
+        }
+
+        private void flush() throws IOException {
+            outputBuffer.flip();
+            while (outputBuffer.hasRemaining()) out.write(outputBuffer);
+            outputBuffer.clear();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package logicsimulator.cli;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.gate.GateType;
+import logicsimulator.generator.CircuitGenerator;
+import logicsimulator.io.CircuitFiles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Erzeugt eine Schaltung mit CircuitGenerator und speichert sie (das Format ergibt sich aus der Dateiendung, siehe
+// CircuitFiles). Die Schaltung kann anschließend z. B. mit BatchSimulator simuliert werden.
+//
+// Aufruf: java -cp app-headless.jar logicsimulator.cli.GenerateCircuit <Art> <Größe> <Datei> [<Startwert>]
+public final class GenerateCircuit {
+    // Parameter für zufällige Schaltungen (die Größe gibt die Anzahl der Gatter an)
+    private static final int RANDOM_INPUT_COUNT = 64, RANDOM_MAX_FAN_IN = 3, RANDOM_MAX_FAN_OUT = 4;
+
+    private GenerateCircuit() {}
+
+    public static void main(String[] args) {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: GenerateCircuit <type> <size> <file> [<seed>]");
+            System.err.println("Types: ripple-carry-adder, carry-lookahead-adder, multiplier, parity, and, or, chain, random");
+            System.exit(2);
+        }
+        try {
+            int size = Integer.parseInt(args[1]);
+            long seed = args.length == 4 ? Long.parseLong(args[3]) : 0;
+            LogicCircuit circuit = switch (args[0]) {
+                case "ripple-carry-adder" -> CircuitGenerator.rippleCarryAdder(size);
+                case "carry-lookahead-adder" -> CircuitGenerator.carryLookaheadAdder(size);
+                case "multiplier" -> CircuitGenerator.arrayMultiplier(size);
+                case "parity" -> CircuitGenerator.parityTree(size);
+                case "and" -> CircuitGenerator.wideGate(GateType.AND, size);
+                case "or" -> CircuitGenerator.wideGate(GateType.OR, size);
+                case "chain" -> CircuitGenerator.chain(size);
+                case "random" -> CircuitGenerator.randomDag(size, RANDOM_INPUT_COUNT, RANDOM_MAX_FAN_IN, RANDOM_MAX_FAN_OUT, seed);
+                default -> throw new IllegalArgumentException("unknown circuit type '%s'".formatted(args[0]));
+            };
+            CircuitFiles.save(circuit, Path.of(args[2]));
+            System.err.println("Generated %d gates".formatted(circuit.getGatePositions().size()));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package logicsimulator.core;
+
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
+import logicsimulator.core.gate.MultipleInputGate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+// Erzeugt die Darstellung als boolesche Funktionen. Gatter, die mehrere andere Gatter ansteuern, werden nur einmal als
+// Hilfsterm (t1, t2, ...) ausgeschrieben und danach über ihren Namen verwendet, statt für jeden Pfad erneut expandiert
+// zu werden. Namen, die bereits von Ein- oder Ausgängen verwendet werden, werden dabei übersprungen.
+// Die Ausgabe wird direkt in ein Appendable geschrieben und vor dem ersten Operanden, der nicht mehr in "maxLength"
+// Zeichen passt, mit " ..." abgebrochen.
+public class BooleanFunctionRenderer {
+    public static final int DEFAULT_MAX_LENGTH = 10_000;
+
+    private final LogicCircuit circuit;
+    private final int maxLength;
+
+    public BooleanFunctionRenderer(LogicCircuit circuit) {
+        this(circuit, DEFAULT_MAX_LENGTH);
+    }
+
+    public BooleanFunctionRenderer(LogicCircuit circuit, int maxLength) {
+        if (maxLength <= 0) throw new IllegalArgumentException("maximum length must be positive");
+        this.circuit = circuit;
+        this.maxLength = maxLength;
+    }
+
+    // Ausgangs-Gatter werden als "f1 = ...", alle anderen Gatter nur als Ausdruck dargestellt
+    public String render(List<Point> roots) {
+        StringBuilder s = new StringBuilder();
+        try {
+            render(roots, s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return s.toString();
+    }
+
+    public void render(List<Point> roots, Appendable out) throws IOException {
+        new Rendering(out).run(roots);
+    }
+
+    // Wird geworfen, sobald die maximale Länge erreicht ist (ohne Stacktrace, da nur zur Ablaufsteuerung verwendet)
+    private static final class LimitReachedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private LimitReachedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Ein noch nicht ausgegebener Operand bzw. ein Trennzeichen vor dem nächsten Operanden
+    private record Operand(Point pos, boolean parenthesize) {}
+    private record Separator(String text) {}
+
+    private class Rendering {
+        private final Appendable out;
+        private final StringBuilder pending = new StringBuilder();
+        private final Map<Point, Integer> references = new HashMap<>();
+        private final Map<Point, String> termNames = new HashMap<>();
+        private final Set<String> usedNames = new HashSet<>();
+        private int termCount = 0;
+        private int length = 0;
+        private boolean firstEntry = true;
+
+        private Rendering(Appendable out) {
+            this.out = out;
+        }
+
+        private void run(List<Point> roots) throws IOException {
+            countReferences(roots);
+            try {
+                writeTerms(roots);
+                for (Point root : roots) {
+                    startEntry();
+                    writeExpression(root);
+                }
+            } catch (LimitReachedException e) {
+                out.append(" ...");
+            }
+        }
+
+        // Zählt für alle erreichbaren Gatter, wie oft sie als Eingang verwendet werden, und merkt sich die Namen der
+        // Ein- und Ausgänge
+        private void countReferences(List<Point> roots) {
+            Set<Point> visited = new HashSet<>(roots);
+            Deque<Point> stack = new ArrayDeque<>(roots);
+            while (!stack.isEmpty()) {
+                Gate gate = circuit.getGateAt(stack.pop());
+                gate.getName().ifPresent(usedNames::add);
+                for (Point input : gate.getInputs()) {
+                    references.merge(input, 1, Integer::sum);
+                    if (visited.add(input)) stack.push(input);
+                }
+            }
+        }
+
+        private boolean isShared(Point pos) {
+            GateType type = circuit.getGateAt(pos).getType();
+            return references.getOrDefault(pos, 0) > 1 && type != GateType.INPUT && type != GateType.OUTPUT;
+        }
+
+        // Hilfsterme in Postorder ausgeben, damit jeder Term nur bereits definierte Terme verwendet
+        private void writeTerms(List<Point> roots) throws IOException {
+            Set<Point> visited = new HashSet<>();
+            Deque<Point> stack = new ArrayDeque<>();
+            Deque<Iterator<Point>> inputs = new ArrayDeque<>();
+            for (Point root : roots) {
+                if (!visited.add(root)) continue;
+                stack.push(root);
+                inputs.push(circuit.getGateAt(root).getInputs().iterator());
+                while (!stack.isEmpty()) {
+                    if (inputs.peek().hasNext()) {
+                        Point input = inputs.peek().next();
+                        if (visited.add(input)) {
+                            stack.push(input);
+                            inputs.push(circuit.getGateAt(input).getInputs().iterator());
+                        }
+                    } else {
+                        Point pos = stack.pop();
+                        inputs.pop();
+                        if (isShared(pos)) writeTerm(pos);
+                    }
+                }
+            }
+        }
+
+        private void writeTerm(Point pos) throws IOException {
+            String name;
+            do {
+                name = "t" + ++termCount;
+            } while (usedNames.contains(name));
+            startEntry();
+            write(name);
+            pending.append(" = ");
+            writeExpression(pos);
+            termNames.put(pos, name);
+        }
+
+        private void startEntry() {
+            if (!firstEntry) pending.append("; ");
+            firstEntry = false;
+        }
+
+        // Ohne Rekursion, damit auch sehr lange Ketten von Gattern keinen StackOverflowError auslösen: Auf dem Stapel
+        // liegen die noch zu schreibenden Teile (Namen, Trennzeichen und noch nicht aufgelöste Operanden).
+        private void writeExpression(Point pos) throws IOException {
+            Deque<Object> parts = new ArrayDeque<>();
+            pushExpression(pos, parts);
+            while (!parts.isEmpty()) {
+                Object part = parts.pop();
+                if (part instanceof Operand operand) {
+                    pushOperand(operand, parts);
+                } else if (part instanceof Separator separator) {
+                    pending.append(separator.text());
+                } else {
+                    write((String) part);
+                }
+            }
+        }
+
+        // Die Teile werden in umgekehrter Reihenfolge auf den Stapel gelegt
+        private void pushExpression(Point pos, Deque<Object> parts) {
+            Gate gate = circuit.getGateAt(pos);
+            List<Point> inputs = gate.getInputs();
+            switch (gate.getType()) {
+                case INPUT -> parts.push(gate.getName().orElseThrow());
+                case OUTPUT -> {
+                    if (inputs.isEmpty()) {
+                        parts.push(gate.getName().orElseThrow() + " = ");
+                        return;
+                    }
+                    parts.push(new Operand(inputs.get(0), false));
+                    parts.push(new Separator(" = "));
+                    parts.push(gate.getName().orElseThrow());
+                }
+                case NOT -> {
+                    if (inputs.isEmpty()) return;
+                    parts.push(new Operand(inputs.get(0), true));
+                    parts.push("!");
+                }
+                default -> {
+                    Separator separator = new Separator(" " + MultipleInputGate.getSymbol(gate.getType()) + " ");
+                    for (int i = inputs.size() - 1; i >= 0; i--) {
+                        parts.push(new Operand(inputs.get(i), true));
+                        if (i > 0) parts.push(separator);
+                    }
+                }
+            }
+        }
+
+        // Eingänge und Hilfsterme werden nur über ihren Namen, alle anderen Gatter als (geklammerter) Ausdruck eingefügt
+        private void pushOperand(Operand operand, Deque<Object> parts) {
+            Point pos = operand.pos();
+            Gate gate = circuit.getGateAt(pos);
+            if (gate.getType() == GateType.INPUT) {
+                parts.push(gate.getName().orElseThrow());
+            } else if (termNames.containsKey(pos)) {
+                parts.push(termNames.get(pos));
+            } else if (operand.parenthesize()) {
+                parts.push(")");
+                pushExpression(pos, parts);
+                parts.push("(");
+            } else {
+                pushExpression(pos, parts);
+            }
+        }
+
+        // Trennzeichen werden erst zusammen mit dem folgenden Namen geschrieben, so dass nur zwischen zwei Operanden
+        // abgebrochen wird
+        private void write(String s) throws IOException {
+            if (length + pending.length() + s.length() > maxLength) throw new LimitReachedException();
+            out.append(pending).append(s);
+            length += pending.length() + s.length();
+            pending.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package logicsimulator.core;
+
+// Wird über Änderungen an einer Schaltung benachrichtigt (nachdem die Änderung durchgeführt wurde). Nur die Ereignisse,
+// die für einen Beobachter wichtig sind, müssen überschrieben werden.
+public interface CircuitListener {
+    default void gateAdded(Point pos) {}
+    // Die Verbindungen des Gatters wurden ebenfalls entfernt
+    default void gateRemoved(Point pos) {}
+    // Bei Gattern mit nur einem Eingang wurde dabei die bisherige Verbindung ersetzt
+    default void connected(Point from, Point to) {}
+    default void inputToggled(Point pos) {}
+    // "pos" ist null, wenn kein Gatter mehr ausgewählt ist
+    default void selectionChanged(Point pos) {}
+}
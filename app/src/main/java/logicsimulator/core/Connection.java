@@ -0,0 +1,4 @@
+package logicsimulator.core;
+
+// Verbindung vom Ausgang des Gatters an der Position "from" zu einem Eingang des Gatters an der Position "to"
+public record Connection(Point from, Point to) {}
@@ -0,0 +1,239 @@
+package logicsimulator.core;
+
+import logicsimulator.core.gate.EditableGate;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+// Speichert die Gatter in Blöcken aus CHUNK_SIZE x CHUNK_SIZE Feldern, innerhalb eines Blocks ist die Position eines
+// Gatters sein Index im Feld des Blocks. Die Blöcke liegen in einer Hashtabelle mit offener Adressierung (lineares
+// Sondieren), deren Schlüssel die in ein "long" gepackten Blockkoordinaten sind (x in den oberen, y in den unteren
+// 32 Bit). Für eine Abfrage wird also kein Objekt angelegt, leere Bereiche belegen keinen Speicher und benachbarte
+// Gatter liegen im selben Block. Nach außen verhält sich das Gitter wie eine Map von den Positionen auf die Gatter.
+final class GateGrid extends AbstractMap<Point, EditableGate> {
+    static final int CHUNK_BITS = 3, CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // Kann kein Schlüssel sein, da die Blockkoordinaten nur 29 Bit breit sind
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private static final class Chunk {
+        private final int chunkX, chunkY;
+        private final EditableGate[] gates = new EditableGate[CHUNK_SIZE * CHUNK_SIZE];
+        private int count;
+
+        private Chunk(int chunkX, int chunkY) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+        }
+    }
+
+    private long[] keys;
+    private Chunk[] chunks;
+    private int chunkCount, gateCount;
+
+    GateGrid() {
+        keys = new long[16];
+        Arrays.fill(keys, EMPTY);
+        chunks = new Chunk[16];
+    }
+
+    EditableGate get(int x, int y) {
+        int slot = findSlot(getChunkKey(x >> CHUNK_BITS, y >> CHUNK_BITS));
+        return keys[slot] == EMPTY ? null : chunks[slot].gates[getIndex(x, y)];
+    }
+
+    @Override
+    public EditableGate get(Object key) {
+        return key instanceof Point pos ? get(pos.x(), pos.y()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public EditableGate put(Point pos, EditableGate gate) {
+        if (pos == null || gate == null) throw new IllegalArgumentException("position and gate must not be null");
+        long key = getChunkKey(pos.x() >> CHUNK_BITS, pos.y() >> CHUNK_BITS);
+        int slot = findSlot(key);
+        if (keys[slot] == EMPTY) {
+            if (2 * (chunkCount + 1) > keys.length) {
+                resize(2 * keys.length);
+                slot = findSlot(key);
+            }
+            keys[slot] = key;
+            chunks[slot] = new Chunk(pos.x() >> CHUNK_BITS, pos.y() >> CHUNK_BITS);
+            chunkCount++;
+        }
+        Chunk chunk = chunks[slot];
+        int index = getIndex(pos.x(), pos.y());
+        EditableGate oldGate = chunk.gates[index];
+        chunk.gates[index] = gate;
+        if (oldGate == null) {
+            chunk.count++;
+            gateCount++;
+        }
+        return oldGate;
+    }
+
+    // Leere Blöcke werden sofort entfernt
+    @Override
+    public EditableGate remove(Object key) {
+        if (!(key instanceof Point pos)) return null;
+        int slot = findSlot(getChunkKey(pos.x() >> CHUNK_BITS, pos.y() >> CHUNK_BITS));
+        if (keys[slot] == EMPTY) return null;
+        Chunk chunk = chunks[slot];
+        int index = getIndex(pos.x(), pos.y());
+        EditableGate oldGate = chunk.gates[index];
+        if (oldGate == null) return null;
+        chunk.gates[index] = null;
+        gateCount--;
+        if (--chunk.count == 0) removeSlot(slot);
+        return oldGate;
+    }
+
+    @Override
+    public int size() {
+        return gateCount;
+    }
+
+    // Positionen aller Gatter im Rechteck von "min" bis "max". Bei sehr großen Rechtecken werden statt aller Blöcke im
+    // Rechteck nur die vorhandenen Blöcke durchlaufen.
+    List<Point> getPositionsIn(Point min, Point max) {
+        List<Point> result = new ArrayList<>();
+        int minX = min.x() >> CHUNK_BITS, maxX = max.x() >> CHUNK_BITS, minY = min.y() >> CHUNK_BITS, maxY = max.y() >> CHUNK_BITS;
+        if (minX > maxX || minY > maxY) return result;
+        Consumer<Chunk> addPositions = chunk -> forEachPosition(chunk, pos -> {
+            if (pos.x() >= min.x() && pos.x() <= max.x() && pos.y() >= min.y() && pos.y() <= max.y()) result.add(pos);
+        });
+        if (((long) maxX - minX + 1) * ((long) maxY - minY + 1) > chunkCount) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                Chunk chunk = chunks[slot];
+                if (keys[slot] != EMPTY && chunk.chunkX >= minX && chunk.chunkX <= maxX && chunk.chunkY >= minY && chunk.chunkY <= maxY) {
+                    addPositions.accept(chunk);
+                }
+            }
+            return result;
+        }
+        for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+            for (int chunkY = minY; chunkY <= maxY; chunkY++) {
+                int slot = findSlot(getChunkKey(chunkX, chunkY));
+                if (keys[slot] != EMPTY) addPositions.accept(chunks[slot]);
+            }
+        }
+        return result;
+    }
+
+    private static void forEachPosition(Chunk chunk, Consumer<Point> action) {
+        for (int index = 0; index < chunk.gates.length; index++) {
+            if (chunk.gates[index] != null) action.accept(getPosition(chunk, index));
+        }
+    }
+
+    private static Point getPosition(Chunk chunk, int index) {
+        return new Point(chunk.chunkX << CHUNK_BITS | index & CHUNK_MASK, chunk.chunkY << CHUNK_BITS | index >> CHUNK_BITS);
+    }
+
+    @Override
+    public Set<Entry<Point, EditableGate>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Point, EditableGate>> iterator() {
+                return new Iterator<>() {
+                    private int slot = -1, index = CHUNK_SIZE * CHUNK_SIZE;
+
+                    {
+                        advance();
+                    }
+
+                    // Springt zum nächsten Gatter (oder hinter die letzte Zeile der Tabelle)
+                    private void advance() {
+                        do {
+                            index++;
+                            if (index >= CHUNK_SIZE * CHUNK_SIZE) {
+                                index = 0;
+                                do slot++; while (slot < keys.length && keys[slot] == EMPTY);
+                                if (slot >= keys.length) return;
+                            }
+                        } while (chunks[slot].gates[index] == null);
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < keys.length;
+                    }
+
+                    @Override
+                    public Entry<Point, EditableGate> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Chunk chunk = chunks[slot];
+                        Entry<Point, EditableGate> entry = new SimpleImmutableEntry<>(getPosition(chunk, index), chunk.gates[index]);
+                        advance();
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return gateCount;
+            }
+        };
+    }
+
+    private static int getIndex(int x, int y) {
+        return (y & CHUNK_MASK) << CHUNK_BITS | x & CHUNK_MASK;
+    }
+
+    private static long getChunkKey(int chunkX, int chunkY) {
+        return (long) chunkX << 32 | (chunkY & 0xFFFFFFFFL);
+    }
+
+    // Liefert den Platz des Schlüssels oder den ersten freien Platz, an dem er stehen müsste
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    // Die folgenden Einträge werden zurückgeschoben, damit beim Suchen keine Lücke entsteht
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == EMPTY) break;
+            int home = hash(keys[next]) & mask;
+            // Der Eintrag darf nur nach vorne rücken, wenn sein eigentlicher Platz nicht zwischen "slot" und "next" liegt
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                chunks[slot] = chunks[next];
+                slot = next;
+            }
+        }
+        keys[slot] = EMPTY;
+        chunks[slot] = null;
+        chunkCount--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Chunk[] oldChunks = chunks;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        chunks = new Chunk[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = findSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            chunks[slot] = oldChunks[i];
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package logicsimulator.core;
+
+// Produktterm einer Wertetabelle: Für alle Bits, die in "mask" gesetzt sind, muss die Zeilennummer mit "value"
+// übereinstimmen (Bit n - 1 - i gehört wie bei den Zeilennummern zum i-ten Eingang). Alle anderen Eingänge sind beliebig.
+public record Implicant(long mask, long value) {
+    public Implicant {
+        value &= mask;
+    }
+
+    public boolean covers(long row) {
+        return (row & mask) == value;
+    }
+
+    public int getLiteralCount() {
+        return Long.bitCount(mask);
+    }
+
+    // Liefert 1 (Eingang muss wahr sein), 0 (Eingang muss falsch sein) oder -1 (Eingang ist beliebig)
+    public int getLiteral(int inputCount, int input) {
+        long bit = 1L << (inputCount - 1 - input);
+        if ((mask & bit) == 0) return -1;
+        return (value & bit) != 0 ? 1 : 0;
+    }
+}
@@ -1,9 +1,11 @@
 package logicsimulator.core;
 
+import logicsimulator.core.bdd.EquivalenceResult;
 import logicsimulator.core.gate.Gate;
 import logicsimulator.core.gate.GateType;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -11,8 +13,22 @@ public interface LogicCircuit {
     // Der Rückgabewert ist "false", wenn sich an der Position "pos" schon ein Gatter befindet.
     boolean addGate(Point pos);
     default void addGates(Point... positions) { Arrays.stream(positions).forEach(this::addGate); }
+    boolean addGate(Point pos, GateType type);
+    // Ein- und Ausgänge können einen eigenen (eindeutigen) Namen erhalten
+    boolean addGate(Point pos, GateType type, String name);
     Gate getGateAt(Point pos);
     Set<Point> getGatePositions();
+    // Positionen aller Gatter im Rechteck von "min" bis "max" (einschließlich der Ränder), ohne alle Gatter zu durchlaufen
+    List<Point> getGatePositionsIn(Point min, Point max);
+    // Alle Verbindungen, deren Begrenzungsrechteck das Rechteck von "min" bis "max" schneidet (jede nur einmal)
+    List<Connection> getConnectionsIn(Point min, Point max);
+    // Liefert die Positionen aller Gatter, die vom Gatter an der Position "pos" angesteuert werden
+    List<Point> getFanOut(Point pos);
+    // Liefert den Ausgangswert des Gatters an der Position "pos" (berechnet mit der kompilierten Schaltung)
+    boolean getOutputAt(Point pos);
+    // Treffer und Fehlschläge des Zwischenspeichers für Gate.getOutput() (wird bei jeder Änderung an der Schaltung
+    // ungültig), der Zwischenspeicher selbst ist nur den Gattern zugänglich
+    OutputCache.Statistics getOutputCacheStatistics();
 
     LogicCircuit setSelectedType(GateType type);
     GateType getSelectedType();
@@ -21,8 +37,32 @@ public interface LogicCircuit {
     boolean isSelected(Point pos);
     // Der Rückgabewert ist "false", wenn zwei Gatter nicht verbunden werden konnten.
     boolean interactWith(Point pos);
+    // Verbindet den Ausgang des Gatters an der Position "from" mit einem Eingang des Gatters an der Position "to"
+    // (unabhängig vom ausgewählten Gatter). Der Rückgabewert ist "false", wenn die Verbindung ungültig ist.
+    boolean connect(Point from, Point to);
+    // Verbindet alle Gatter an den Positionen "from" mit dem Gatter an der Position "to". Der Rückgabewert ist "false"
+    // (und die Schaltung bleibt unverändert), wenn eine der Verbindungen ungültig ist.
+    boolean connect(List<Point> from, Point to);
     void removeSelectedGate();
 
+    // Wird bei jeder Änderung an der Schaltung erhöht (Gatter, Verbindungen und Werte der Eingänge, nicht die Auswahl)
+    long getVersion();
+    void addListener(CircuitListener listener);
+    void removeListener(CircuitListener listener);
+
+    // Die Formeln und Wertetabellen werden zwischengespeichert, bis sich Gatter oder Verbindungen ändern
     Optional<String> getBooleanFunctions();
+    // Wertetabelle des ausgewählten Gatters (nur bis TableOfValues.MAX_INTERACTIVE_INPUT_COUNT Eingängen)
     Optional<TableOfValues> getTableOfValues();
+    // Gibt an, ob getTableOfValues() eine Tabelle liefert, ohne sie zu berechnen
+    boolean hasTableOfValues();
+    // Wertetabelle mit einer Spalte für jedes der Gatter an den Positionen "positions" (in einem Durchlauf berechnet)
+    Optional<TableOfValues> getTableOfValues(List<Point> positions);
+    // Wertetabelle aller Ausgänge (nach Namen sortiert)
+    Optional<TableOfValues> getOutputTableOfValues();
+
+    // Prüft, ob die Gatter an den Positionen "pos" und "otherPos" dieselbe Funktion der Eingänge berechnen
+    EquivalenceResult checkEquivalence(Point pos, Point otherPos);
+    // Prüft, ob beide Schaltungen an allen gleichnamigen Ausgängen dieselbe Funktion der (gleichnamigen) Eingänge berechnen
+    EquivalenceResult checkEquivalence(LogicCircuit other);
 }
@@ -1,15 +1,47 @@
 package logicsimulator.core;
 
+import logicsimulator.core.bdd.EquivalenceChecker;
+import logicsimulator.core.bdd.EquivalenceResult;
 import logicsimulator.core.gate.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public class LogicCircuitSimulation implements LogicCircuit {
-    private final Map<Point, Gate> gates = new HashMap<>();
+    private final GateGrid gates = new GateGrid();
+    private final Map<Point, List<Point>> fanOuts = new HashMap<>(); // Gatter, die vom Gatter an einer Position angesteuert werden
+    private final Set<String> inputNames = new HashSet<>(), outputNames = new HashSet<>();
     private GateType selectedType = GateType.AND;
     private Point selectedPos;
+    private Netlist netlist; // Wird bei jeder Änderung der Verbindungen verworfen und bei Bedarf neu erzeugt
+    private final OutputCache outputCache = new OutputCache();
+    private final SpatialIndex spatialIndex = new SpatialIndex();
+    private final TopologicalOrder topologicalOrder = new TopologicalOrder(pos -> getGateAt(pos).getInputs(),
+            pos -> fanOuts.getOrDefault(pos, List.of()));
+
+    private final List<CircuitListener> listeners = new ArrayList<>();
+    private long version, structureVersion; // "structureVersion" ändert sich nur mit den Gattern und Verbindungen
+    private final Cached<Optional<String>> booleanFunctions = new Cached<>();
+    private final Cached<Optional<TableOfValues>> tableOfValues = new Cached<>(), outputTableOfValues = new Cached<>();
+
+    // Ergebnis, das nur neu berechnet wird, wenn sich die Gatter oder Verbindungen (oder der Schlüssel, z. B. das
+    // ausgewählte Gatter) seit der letzten Berechnung geändert haben
+    private final class Cached<T> {
+        private T value;
+        private Object key;
+        private long version = -1;
+
+        T get(Object key, Supplier<T> compute) {
+            if (version != structureVersion || !Objects.equals(key, this.key)) {
+                value = compute.get();
+                this.key = key;
+                version = structureVersion;
+            }
+            return value;
+        }
+    }
 
     private int inputCounter = 0;
     private char inputChar = 'a';
@@ -17,50 +49,112 @@ public class LogicCircuitSimulation implements LogicCircuit {
     private int outputCounter = 1;
 
     public boolean addGate(Point pos) {
+        return addGate(pos, selectedType, null);
+    }
+
+    public boolean addGate(Point pos, GateType type) {
+        return addGate(pos, type, null);
+    }
+
+    // Ohne Namen ("name" ist null) werden die Namen der Ein- und Ausgänge automatisch erzeugt
+    public boolean addGate(Point pos, GateType type, String name) {
         if (pos == null) throw new IllegalArgumentException("position must not be null");
+        if (type == null) throw new IllegalArgumentException("type must not be null");
+        if (name != null && type != GateType.INPUT && type != GateType.OUTPUT) throw new IllegalArgumentException("only inputs and outputs have names");
+        if (name != null && (name.isBlank() || getNames(type).contains(name))) throw new IllegalArgumentException("invalid name");
         if (gates.containsKey(pos)) return false;
 
-        Gate gate = switch (selectedType) {
-            case AND -> new AndGate(this);
-            case OR -> new OrGate(this);
-            case EXCLUSIVE_OR -> new ExclusiveOrGate(this);
-            case NOT -> new NotGate(this);
-            case INPUT -> new Input(generateInputName());
-            case OUTPUT -> new Output(this, generateOutputName());
+        EditableGate gate = switch (type) {
+            case AND -> new AndGate(this, outputCache);
+            case OR -> new OrGate(this, outputCache);
+            case EXCLUSIVE_OR -> new ExclusiveOrGate(this, outputCache);
+            case NOT -> new NotGate(this, outputCache);
+            case INPUT -> new Input(name != null ? name : generateInputName());
+            case OUTPUT -> new Output(this, outputCache, name != null ? name : generateOutputName());
         };
+        gate.getName().ifPresent(getNames(type)::add);
 
         gates.put(pos, gate);
+        topologicalOrder.addNode(pos);
+        netlist = null;
+        outputCache.invalidate();
+        structureModified();
+        listeners.forEach(listener -> listener.gateAdded(pos));
         return true;
     }
 
+    // Die Namen müssen nur unter den Eingängen bzw. unter den Ausgängen eindeutig sein
+    private Set<String> getNames(GateType type) {
+        return type == GateType.INPUT ? inputNames : outputNames;
+    }
+
     // Erzeugt Namen für die Eingänge nach folgendem Schema: a, ..., z, a1, ..., z1, ...
+    // (Namen, die schon vergeben sind, werden übersprungen)
     private String generateInputName() {
-        String inputName = String.valueOf(inputChar);
-        if (inputCounter > 0) inputName += inputCounter;
-        inputChar++;
-        if (inputChar > 'z') {
-            inputChar = 'a';
-            inputCounter++;
-        }
+        String inputName;
+        do {
+            inputName = String.valueOf(inputChar);
+            if (inputCounter > 0) inputName += inputCounter;
+            inputChar++;
+            if (inputChar > 'z') {
+                inputChar = 'a';
+                inputCounter++;
+            }
+        } while (inputNames.contains(inputName));
         return inputName;
     }
 
     // Erzeugt Namen für die Ausgange nach folgendem Schema: f1, f2, ...
     private String generateOutputName() {
-        String outputName = "f" + outputCounter;
-        outputCounter++;
+        String outputName;
+        do {
+            outputName = "f" + outputCounter;
+            outputCounter++;
+        } while (outputNames.contains(outputName));
         return outputName;
     }
 
+    // Die Gatter werden nur als unveränderliche Ansicht herausgegeben, Änderungen laufen immer über die Schaltung
     public Gate getGateAt(Point pos) {
         if (pos == null) throw new IllegalArgumentException("position must not be null");
-        return gates.get(pos);
+        EditableGate gate = gates.get(pos.x(), pos.y());
+        return gate == null ? null : gate.getReadOnlyView();
     }
 
     public Set<Point> getGatePositions() {
         return Set.copyOf(gates.keySet());
     }
 
+    public List<Point> getGatePositionsIn(Point min, Point max) {
+        if (min == null || max == null) throw new IllegalArgumentException("position must not be null");
+        return gates.getPositionsIn(min, max);
+    }
+
+    public List<Connection> getConnectionsIn(Point min, Point max) {
+        if (min == null || max == null) throw new IllegalArgumentException("position must not be null");
+        return spatialIndex.getConnectionsIn(min, max);
+    }
+
+    public List<Point> getFanOut(Point pos) {
+        if (pos == null || getGateAt(pos) == null) throw new IllegalArgumentException("invalid position");
+        return List.copyOf(fanOuts.getOrDefault(pos, List.of()));
+    }
+
+    public boolean getOutputAt(Point pos) {
+        if (pos == null || getGateAt(pos) == null) throw new IllegalArgumentException("invalid position");
+        Netlist netlist = getNetlist();
+        return netlist.getValue(netlist.getId(pos));
+    }
+
+    public OutputCache.Statistics getOutputCacheStatistics() {
+        return outputCache.getStatistics();
+    }
+
+    private Netlist getNetlist() {
+        if (netlist == null) netlist = Netlist.compile(gates);
+        return netlist;
+    }
+
     public LogicCircuit setSelectedType(GateType type) {
         selectedType = type;
         return this;
@@ -78,6 +172,7 @@ public class LogicCircuitSimulation implements LogicCircuit {
         } else {
             selectedPos = pos;
         }
+        listeners.forEach(listener -> listener.selectionChanged(selectedPos));
         return this;
     }
 
@@ -89,97 +184,202 @@ public class LogicCircuitSimulation implements LogicCircuit {
 
     // Eine Verbindung ist ungültig, wenn man ein Ausgangs-Gatter als Eingang verwenden oder ein Gatter mit sich
     // selbst verbinden möchte (da dann die Darstellung als boolesche Funktion nicht funktioniert)
-    private boolean isValidConnection(Point pos) {
-        if (selectedPos == null || getGateAt(selectedPos).getType() == GateType.OUTPUT) return false;
-        return !hasLoop(selectedPos, pos);
+    private boolean isValidConnection(Point from, Point to) {
+        if (getGateAt(from).getType() == GateType.OUTPUT || getGateAt(to).getType() == GateType.INPUT) return false;
+        return !hasLoop(from, to);
     }
 
-    // Prüft rekursiv, ob man durch die zusätzliche Verbindung ein Gatter (auch über andere Gatter)
-    // mit sich selbst verbinden würde
+    // Prüft, ob man durch die zusätzliche Verbindung ein Gatter (auch über andere Gatter) mit sich selbst verbinden
+    // würde. Ist das nicht der Fall, wird die topologische Reihenfolge so angepasst, dass das Gatter an der Position
+    // "pos" vor dem Gatter an der Position "connectionPos" steht.
     private boolean hasLoop(Point pos, Point connectionPos) {
-        Gate gate = getGateAt(pos);
-        if (pos.equals(connectionPos)) return true;
-        else if (gate.getInputs().isEmpty()) return false;
-        else return gate.getInputs().parallelStream().anyMatch(p -> hasLoop(p, connectionPos));
+        return !topologicalOrder.placeBefore(pos, connectionPos);
     }
 
     public boolean interactWith(Point pos) {
         if (pos == null) throw new IllegalArgumentException("position must not be null");
-        Gate gate = getGateAt(pos);
+        EditableGate gate = gates.get(pos);
         if (gate != null) {
             if (gate.getType() == GateType.INPUT) {
                 // Eingangs-Gatter: Ausgangswert ändern
-                gates.replace(pos, gate.toggleOutput());
+                gate.toggleOutput();
+                if (netlist != null) netlist.setInput(netlist.getId(pos), gate.getOutput());
+                outputCache.invalidate();
+                version++;
+                listeners.forEach(listener -> listener.inputToggled(pos));
                 return true;
-            } else if (isValidConnection(pos)) {
+            } else if (selectedPos != null) {
                 // Alle anderen Gatter: mit ausgewähltem Gatter verbinden
-                gates.replace(pos, gate.addInput(selectedPos));
-                return true;
+                return connect(selectedPos, pos);
             }
         }
         return false;
     }
 
+    // Bei Gattern mit nur einem Eingang wird die bisherige Verbindung ersetzt
+    public boolean connect(Point from, Point to) {
+        if (from == null || getGateAt(from) == null || to == null || getGateAt(to) == null) throw new IllegalArgumentException("invalid position");
+        if (!isValidConnection(from, to)) return false;
+
+        EditableGate gate = gates.get(to);
+        if (gate.getType() == GateType.NOT || gate.getType() == GateType.OUTPUT) {
+            for (Point input : gate.getInputs()) {
+                fanOuts.get(input).remove(to);
+                spatialIndex.removeConnection(new Connection(input, to));
+            }
+        }
+        fanOuts.computeIfAbsent(from, p -> new ArrayList<>()).add(to);
+        spatialIndex.addConnection(new Connection(from, to));
+        gate.addInput(from);
+        netlist = null;
+        outputCache.invalidate();
+        structureModified();
+        listeners.forEach(listener -> listener.connected(from, to));
+        return true;
+    }
+
+    // Die Verbindungen werden gemeinsam geprüft und in einem Schritt zum Gatter "to" hinzugefügt
+    public boolean connect(List<Point> from, Point to) {
+        if (from == null || to == null || getGateAt(to) == null) throw new IllegalArgumentException("invalid position");
+        for (Point pos : from) {
+            if (pos == null || getGateAt(pos) == null) throw new IllegalArgumentException("invalid position");
+        }
+        EditableGate gate = gates.get(to);
+        if (gate.getType() == GateType.NOT || gate.getType() == GateType.OUTPUT) return from.size() == 1 && connect(from.get(0), to);
+        for (Point pos : from) {
+            if (!isValidConnection(pos, to)) return false;
+        }
+
+        for (Point pos : from) {
+            fanOuts.computeIfAbsent(pos, p -> new ArrayList<>()).add(to);
+            spatialIndex.addConnection(new Connection(pos, to));
+        }
+        gate.addInputs(from);
+        netlist = null;
+        outputCache.invalidate();
+        structureModified();
+        for (Point pos : from) listeners.forEach(listener -> listener.connected(pos, to));
+        return true;
+    }
+
+    // Alle Verbindungen zu dem Gatter werden sofort entfernt, dafür werden nur die direkt
+    // angeschlossenen Gatter betrachtet
     public void removeSelectedGate() {
+        if (selectedPos == null) return;
+        for (Point output : fanOuts.getOrDefault(selectedPos, List.of())) spatialIndex.removeConnection(new Connection(selectedPos, output));
+        for (Point output : new LinkedHashSet<>(fanOuts.getOrDefault(selectedPos, List.of()))) {
+            gates.get(output).removeInput(selectedPos);
+        }
+        for (Point input : getGateAt(selectedPos).getInputs()) {
+            fanOuts.get(input).removeIf(selectedPos::equals);
+            spatialIndex.removeConnection(new Connection(input, selectedPos));
+        }
+        fanOuts.remove(selectedPos);
+        topologicalOrder.removeNode(selectedPos);
+        Gate removedGate = getGateAt(selectedPos);
+        removedGate.getName().ifPresent(getNames(removedGate.getType())::remove);
         gates.remove(selectedPos);
+        Point removedPos = selectedPos;
         selectedPos = null;
+        netlist = null;
+        outputCache.invalidate();
+        structureModified();
+        listeners.forEach(listener -> listener.gateRemoved(removedPos));
+        listeners.forEach(listener -> listener.selectionChanged(null));
+    }
+
+    private void structureModified() {
+        version++;
+        structureVersion++;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void addListener(CircuitListener listener) {
+        if (listener == null) throw new IllegalArgumentException("listener must not be null");
+        listeners.add(listener);
+    }
+
+    public void removeListener(CircuitListener listener) {
+        listeners.remove(listener);
     }
     
     public Optional<String> getBooleanFunctions() {
-        if (gates.values().parallelStream().noneMatch(gate -> gate.getType() == GateType.OUTPUT)) return Optional.empty();
+        return booleanFunctions.get(null, () -> {
+            List<Point> outputPositions = getPositionsSortedByName(GateType.OUTPUT);
+            if (outputPositions.isEmpty()) return Optional.empty();
 
-        String booleanFunctions = gates.values().parallelStream().filter(gate -> gate.getType() == GateType.OUTPUT)
-                .sorted(Comparator.comparing(gate -> gate.getName().orElseThrow()))
-                .map(Gate::getBooleanFunction).collect(Collectors.joining("; "));
-        return Optional.of(booleanFunctions);
+            return Optional.of(new BooleanFunctionRenderer(this).render(outputPositions));
+        });
     }
 
     public Optional<TableOfValues> getTableOfValues() {
         if (selectedPos == null) return Optional.empty();
+        return tableOfValues.get(selectedPos, () -> computeTableOfValues(List.of(selectedPos),
+                pos -> new BooleanFunctionRenderer(this).render(List.of(pos)), TableOfValues.MAX_INTERACTIVE_INPUT_COUNT));
+    }
 
-        List<Point> inputPositions = gates.keySet().stream()
-                .filter(pos -> getGateAt(pos).getType() == GateType.INPUT)
-                .sorted(Comparator.comparing(pos -> getGateAt(pos).getName().orElseThrow())).toList();
+    // Jeder Eingang hat einen eindeutigen Namen, die Anzahl der Eingänge ist also die Anzahl der Namen
+    public boolean hasTableOfValues() {
+        return selectedPos != null && !inputNames.isEmpty() && inputNames.size() <= TableOfValues.MAX_INTERACTIVE_INPUT_COUNT;
+    }
 
-        // Es soll nur eine Wertetabelle erstellt werden, wenn es mindestens einen Eingang gibt
-        if (inputPositions.isEmpty()) return Optional.empty();
+    public Optional<TableOfValues> getTableOfValues(List<Point> positions) {
+        if (positions.isEmpty()) throw new IllegalArgumentException("positions must not be empty");
+        for (Point pos : positions) {
+            if (pos == null || getGateAt(pos) == null) throw new IllegalArgumentException("invalid position");
+        }
+        // Ausgänge werden in der Kopfzeile nur mit ihrem Namen bezeichnet, damit die Tabelle lesbar bleibt
+        BooleanFunctionRenderer renderer = new BooleanFunctionRenderer(this);
+        return computeTableOfValues(positions, pos -> getGateAt(pos).getType() == GateType.OUTPUT
+                ? getGateAt(pos).getName().orElseThrow() : renderer.render(List.of(pos)), TableOfValues.MAX_INPUT_COUNT);
+    }
 
-        // Bisherige Zustände der Eingänge merken, um sie am Ende wiederherzustellen
-        Map<Point, Boolean> inputStates = inputPositions.stream()
-                .collect(Collectors.toMap(pos -> pos, pos -> getGateAt(pos).getOutput()));
+    public Optional<TableOfValues> getOutputTableOfValues() {
+        return outputTableOfValues.get(null, () -> {
+            List<Point> outputPositions = getPositionsSortedByName(GateType.OUTPUT);
+            if (outputPositions.isEmpty()) return Optional.empty();
+            return getTableOfValues(outputPositions);
+        });
+    }
 
-        // Alle Eingänge auf "aus" setzen
-        inputPositions.stream().filter(pos -> getGateAt(pos).getOutput())
-                .forEach(pos -> gates.replace(pos, getGateAt(pos).toggleOutput()));
+    private List<Point> getPositionsSortedByName(GateType type) {
+        return gates.keySet().stream()
+                .filter(pos -> getGateAt(pos).getType() == type)
+                .sorted(Comparator.comparing(pos -> getGateAt(pos).getName().orElseThrow())).toList();
+    }
 
-        List<List<Boolean>> values = new ArrayList<>();
-        buildTableOfValues(inputPositions, values, 0);
+    // Alle Spalten werden gemeinsam in einem Durchlauf über die Zeilen berechnet, Gatter, von denen mehrere Spalten
+    // abhängen, also nur einmal pro Zeile ausgewertet
+    private Optional<TableOfValues> computeTableOfValues(List<Point> positions, Function<Point, String> columnName, int maxInputCount) {
+        List<Point> inputPositions = getPositionsSortedByName(GateType.INPUT);
+
+        // Es soll nur eine Wertetabelle erstellt werden, wenn es mindestens einen Eingang gibt
+        // (und die Tabelle nicht zu groß wird)
+        if (inputPositions.isEmpty() || inputPositions.size() > maxInputCount) return Optional.empty();
 
-        // Bisherige Zustände der Eingänge wiederherstellen
-        inputPositions.stream().filter(pos -> getGateAt(pos).getOutput() != inputStates.get(pos))
-                .forEach(pos -> gates.replace(pos, getGateAt(pos).toggleOutput()));
+        // Die Zeilen werden bitparallel (64 Zeilen pro Durchlauf) und auf mehrere Threads verteilt berechnet,
+        // die Gatter selbst bleiben dabei unverändert
+        Netlist netlist = getNetlist();
+        int[] inputIds = inputPositions.stream().mapToInt(netlist::getId).toArray();
+        int[] outputIds = positions.stream().mapToInt(netlist::getId).toArray();
+        long[][] outputColumns = TableOfValuesTask.computeOutputColumns(netlist, inputIds, outputIds);
 
         List<String> names = Stream.concat(inputPositions.stream().map(pos -> getGateAt(pos).getName().orElseThrow()),
-                Stream.of(getGateAt(selectedPos).getBooleanFunction())).toList();
+                positions.stream().map(columnName)).toList();
 
-        return Optional.of(new TableOfValues(values, names));
+        return Optional.of(TableOfValues.ofComputedColumns(inputIds.length, outputColumns, names));
     }
 
-    // Wertetabelle rekursiv aufbauen
-    private void buildTableOfValues(List<Point> inputPositions, List<List<Boolean>> values, int i) {
-        if (i == inputPositions.size()) {
-            List<Boolean> row = Stream.concat(inputPositions.stream().map(pos -> getGateAt(pos).getOutput()),
-                    Stream.of(getGateAt(selectedPos).getOutput())).toList();
-            values.add(row);
-        } else {
-            // Möglichkeit 1: Eingang an Position i ist ausgeschaltet
-            buildTableOfValues(inputPositions, values, i + 1);
+    public EquivalenceResult checkEquivalence(Point pos, Point otherPos) {
+        return EquivalenceChecker.check(this, pos, this, otherPos);
+    }
 
-            // Möglichkeit 2: Eingang an Position i ist eingeschaltet
-            gates.replace(inputPositions.get(i), getGateAt(inputPositions.get(i)).toggleOutput());
-            buildTableOfValues(inputPositions, values, i + 1);
-            gates.replace(inputPositions.get(i), getGateAt(inputPositions.get(i)).toggleOutput());
-        }
+    public EquivalenceResult checkEquivalence(LogicCircuit other) {
+        if (other == null) throw new IllegalArgumentException("circuit must not be null");
+        return EquivalenceChecker.check(this, other);
     }
 
     @Override
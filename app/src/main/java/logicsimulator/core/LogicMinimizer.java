@@ -0,0 +1,228 @@
+package logicsimulator.core;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+
+// Minimiert eine Ausgangsspalte einer Wertetabelle zu einer möglichst kleinen disjunktiven Form (wenige Produktterme
+// mit wenigen Literalen). Bis QUINE_MCCLUSKEY_MAX_INPUTS Eingänge wird das Verfahren von Quine und McCluskey verwendet
+// (alle Primimplikanten bestimmen und daraus eine minimale Überdeckung auswählen), bei mehr Eingängen eine Heuristik
+// nach dem Vorbild von Espresso (Minterme zu Primimplikanten erweitern, danach überflüssige Terme entfernen).
+// Die Heuristik benötigt Speicher und Rechenzeit für jeden Minterm, bei mehr als ESPRESSO_MAX_MINTERMS Mintermen wird
+// deshalb nicht minimiert, sondern die disjunktive Normalform (ein Term pro Minterm) geliefert.
+public final class LogicMinimizer {
+    public static final int QUINE_MCCLUSKEY_MAX_INPUTS = 12;
+    public static final int ESPRESSO_MAX_MINTERMS = 1 << 16;
+    private static final int MAX_SEARCH_STEPS = 20_000; // Danach wird die beste bisher gefundene Überdeckung verwendet
+
+    private LogicMinimizer() {}
+
+    public static List<Implicant> minimize(TableOfValues table, int output) {
+        List<Implicant> implicants;
+        if (table.getInputCount() <= QUINE_MCCLUSKEY_MAX_INPUTS) implicants = quineMcCluskey(table, output);
+        else if (countMinterms(table, output) <= ESPRESSO_MAX_MINTERMS) implicants = espresso(table, output);
+        else implicants = getMinterms(table, output);
+        implicants.sort(Comparator.comparingLong(Implicant::value).thenComparing(Implicant::mask, Comparator.reverseOrder()));
+        return implicants;
+    }
+
+    private static long countMinterms(TableOfValues table, int output) {
+        long count = 0;
+        for (int i = 0; i < Math.max(1, table.getRowCount() >>> 6); i++) count += Long.bitCount(table.getOutputWord(output, i));
+        return count;
+    }
+
+    private static List<Implicant> getMinterms(TableOfValues table, int output) {
+        long fullMask = table.getRowCount() - 1;
+        List<Implicant> minterms = new ArrayList<>();
+        table.forEachMinterm(output, minterm -> minterms.add(new Implicant(fullMask, minterm)));
+        return minterms;
+    }
+
+    private static List<Implicant> quineMcCluskey(TableOfValues table, int output) {
+        long fullMask = table.getRowCount() - 1;
+        List<Long> mintermList = new ArrayList<>();
+        table.forEachMinterm(output, mintermList::add);
+        long[] minterms = mintermList.stream().mapToLong(Long::longValue).toArray();
+
+        // Primimplikanten bestimmen: Terme, die sich nur in einem Bit unterscheiden, werden zusammengefasst,
+        // bis keine Zusammenfassung mehr möglich ist
+        Set<Implicant> current = new HashSet<>();
+        for (long minterm : minterms) current.add(new Implicant(fullMask, minterm));
+        List<Implicant> primes = new ArrayList<>();
+        while (!current.isEmpty()) {
+            Set<Implicant> next = new HashSet<>();
+            Set<Implicant> combined = new HashSet<>();
+            for (Implicant implicant : current) {
+                for (long bits = implicant.mask() & ~implicant.value(); bits != 0; bits &= bits - 1) {
+                    long bit = bits & -bits;
+                    Implicant partner = new Implicant(implicant.mask(), implicant.value() | bit);
+                    if (current.contains(partner)) {
+                        next.add(new Implicant(implicant.mask() & ~bit, implicant.value()));
+                        combined.add(implicant);
+                        combined.add(partner);
+                    }
+                }
+            }
+            current.stream().filter(implicant -> !combined.contains(implicant)).forEach(primes::add);
+            current = next;
+        }
+
+        return new CoverSearch(primes, minterms).run();
+    }
+
+    // Sucht eine Auswahl von Primimplikanten, die alle Minterme überdeckt (zuerst möglichst wenige Terme,
+    // danach möglichst wenige Literale). Die Suche verzweigt immer beim Minterm mit den wenigsten Möglichkeiten,
+    // sodass wesentliche Primimplikanten ohne Verzweigung übernommen werden.
+    private static final class CoverSearch {
+        private final List<Implicant> primes;
+        private final BitSet[] coveredMinterms;
+        private final int[][] coveringPrimes;
+        private final int mintermCount;
+        private List<Integer> best;
+        private int bestCount, bestLiterals, steps;
+
+        private CoverSearch(List<Implicant> primes, long[] minterms) {
+            this.primes = primes;
+            mintermCount = minterms.length;
+            coveredMinterms = new BitSet[primes.size()];
+            List<List<Integer>> covering = new ArrayList<>();
+            for (int m = 0; m < mintermCount; m++) covering.add(new ArrayList<>());
+            for (int p = 0; p < primes.size(); p++) {
+                coveredMinterms[p] = new BitSet(mintermCount);
+                for (int m = 0; m < mintermCount; m++) {
+                    if (primes.get(p).covers(minterms[m])) {
+                        coveredMinterms[p].set(m);
+                        covering.get(m).add(p);
+                    }
+                }
+            }
+            coveringPrimes = covering.stream().map(list -> list.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+        }
+
+        private List<Implicant> run() {
+            BitSet uncovered = new BitSet(mintermCount);
+            uncovered.set(0, mintermCount);
+            best = greedyCover(uncovered);
+            bestCount = best.size();
+            bestLiterals = best.stream().mapToInt(p -> primes.get(p).getLiteralCount()).sum();
+            search(uncovered, new ArrayDeque<>(), 0);
+            return new ArrayList<>(best.stream().map(primes::get).toList());
+        }
+
+        private List<Integer> greedyCover(BitSet uncovered) {
+            BitSet remaining = (BitSet) uncovered.clone();
+            List<Integer> selection = new ArrayList<>();
+            while (!remaining.isEmpty()) {
+                int bestPrime = -1, bestGain = 0;
+                for (int p = 0; p < primes.size(); p++) {
+                    BitSet gain = (BitSet) coveredMinterms[p].clone();
+                    gain.and(remaining);
+                    int count = gain.cardinality();
+                    if (count > bestGain || count == bestGain && count > 0
+                            && primes.get(p).getLiteralCount() < primes.get(bestPrime).getLiteralCount()) {
+                        bestPrime = p;
+                        bestGain = count;
+                    }
+                }
+                selection.add(bestPrime);
+                remaining.andNot(coveredMinterms[bestPrime]);
+            }
+            return selection;
+        }
+
+        private void search(BitSet uncovered, Deque<Integer> selection, int literals) {
+            if (uncovered.isEmpty()) {
+                if (selection.size() < bestCount || selection.size() == bestCount && literals < bestLiterals) {
+                    best = new ArrayList<>(selection);
+                    bestCount = selection.size();
+                    bestLiterals = literals;
+                }
+                return;
+            }
+            // Mindestens ein weiterer Term ist nötig
+            if (selection.size() + 1 > bestCount || ++steps > MAX_SEARCH_STEPS) return;
+
+            int minterm = uncovered.nextSetBit(0);
+            for (int m = uncovered.nextSetBit(0); m >= 0; m = uncovered.nextSetBit(m + 1)) {
+                if (coveringPrimes[m].length < coveringPrimes[minterm].length) minterm = m;
+            }
+            for (int p : coveringPrimes[minterm]) {
+                BitSet remaining = (BitSet) uncovered.clone();
+                remaining.andNot(coveredMinterms[p]);
+                selection.push(p);
+                search(remaining, selection, literals + primes.get(p).getLiteralCount());
+                selection.pop();
+            }
+        }
+    }
+
+    private static List<Implicant> espresso(TableOfValues table, int output) {
+        long fullMask = table.getRowCount() - 1;
+        long[] covered = new long[(int) Math.max(1, table.getRowCount() >>> 6)];
+        List<Implicant> cubes = new ArrayList<>();
+
+        // EXPAND: Jeden noch nicht überdeckten Minterm so lange um Eingänge verkleinern, wie der Term nur Zeilen
+        // mit dem Wert "wahr" überdeckt (dadurch entsteht ein Primimplikant)
+        table.forEachMinterm(output, minterm -> {
+            if ((covered[(int) (minterm >>> 6)] & (1L << minterm)) != 0) return;
+            long mask = fullMask;
+            for (long bits = fullMask; bits != 0; bits &= bits - 1) {
+                long candidate = mask & ~(bits & -bits);
+                if (coversOnlyOnSet(table, output, candidate, minterm & candidate, fullMask)) mask = candidate;
+            }
+            Implicant cube = new Implicant(mask, minterm);
+            cubes.add(cube);
+            forEachRow(cube, fullMask, row -> covered[(int) (row >>> 6)] |= 1L << row);
+        });
+
+        // IRREDUNDANT: Terme entfernen, deren Zeilen alle auch von anderen Termen überdeckt werden
+        // (die größten Terme werden zuletzt geprüft, damit sie möglichst erhalten bleiben). Dafür wird für jeden
+        // Minterm gezählt, von wie vielen Termen er überdeckt wird (Index = Rang des Minterms in der Ausgangsspalte).
+        int[] ranks = new int[covered.length];
+        for (int i = 1; i < ranks.length; i++) ranks[i] = ranks[i - 1] + Long.bitCount(table.getOutputWord(output, i - 1));
+        LongToIntFunction rank = row -> ranks[(int) (row >>> 6)]
+                + Long.bitCount(table.getOutputWord(output, (int) (row >>> 6)) & ((1L << row) - 1));
+        // int statt byte: Eine Zeile kann von sehr vielen Termen überdeckt werden, ein gesättigter Zähler würde nie
+        // wieder kleiner und ließe alle Terme dieser Zeile als überflüssig erscheinen
+        int[] coverCounts = new int[ranks[ranks.length - 1] + Long.bitCount(table.getOutputWord(output, ranks.length - 1))];
+        for (Implicant cube : cubes) {
+            forEachRow(cube, fullMask, row -> coverCounts[rank.applyAsInt(row)]++);
+        }
+
+        cubes.sort(Comparator.comparingInt(Implicant::getLiteralCount).reversed());
+        List<Implicant> result = new ArrayList<>();
+        for (Implicant cube : cubes) {
+            if (allRowsMatch(cube, fullMask, row -> coverCounts[rank.applyAsInt(row)] > 1)) {
+                forEachRow(cube, fullMask, row -> coverCounts[rank.applyAsInt(row)]--);
+            } else {
+                result.add(cube);
+            }
+        }
+        return result;
+    }
+
+    private static boolean coversOnlyOnSet(TableOfValues table, int output, long mask, long value, long fullMask) {
+        return allRowsMatch(new Implicant(mask, value), fullMask, row -> table.getOutput(row, output));
+    }
+
+    private static boolean allRowsMatch(Implicant cube, long fullMask, LongPredicate predicate) {
+        long free = fullMask & ~cube.mask();
+        long subset = 0;
+        do {
+            if (!predicate.test(cube.value() | subset)) return false;
+            subset = (subset - free) & free;
+        } while (subset != 0);
+        return true;
+    }
+
+    private static void forEachRow(Implicant cube, long fullMask, LongConsumer consumer) {
+        long free = fullMask & ~cube.mask();
+        long subset = 0;
+        do {
+            consumer.accept(cube.value() | subset);
+            subset = (subset - free) & free;
+        } while (subset != 0);
+    }
+}
@@ -0,0 +1,334 @@
+package logicsimulator.core;
+
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Kompilierte Form einer Schaltung: Die Gatter werden nach Ebenen (topologisch) sortiert und durchnummeriert.
+// Da jedes Gatter eine größere Nummer als alle seine Eingänge hat, lassen sich alle Werte in einem einzigen
+// linearen Durchlauf über die Arrays berechnen.
+public final class Netlist {
+    public static final byte OP_INPUT = 0, OP_AND = 1, OP_OR = 2, OP_EXCLUSIVE_OR = 3, OP_NOT = 4, OP_OUTPUT = 5;
+
+    private final Point[] positions;
+    private final Map<Point, Integer> ids;
+    private final byte[] opcodes;
+    private final int[] fanInOffsets; // Eingänge von Gatter i: fanIns[fanInOffsets[i]] bis fanIns[fanInOffsets[i + 1] - 1]
+    private final int[] fanIns;
+    private final int[] fanOutOffsets; // Gatter, die von Gatter i angesteuert werden (wie bei den Eingängen)
+    private final int[] fanOuts;
+    private final int[] levelOffsets; // Gatter der Ebene l: levelOffsets[l] bis levelOffsets[l + 1] - 1
+    private final long[] values; // Ein Bit pro Gatter
+    private boolean dirty = true;
+    private long evaluationCount; // Anzahl der einzeln berechneten Gatter (ohne die bitparallele Auswertung)
+
+    // Warteschlange für die ereignisgesteuerte Ausbreitung (Min-Heap über die Gatternummern)
+    private int[] heap;
+    private long[] scheduled;
+
+    private Netlist(Point[] positions, byte[] opcodes, int[] fanInOffsets, int[] fanIns, int[] levelOffsets) {
+        this.positions = positions;
+        this.opcodes = opcodes;
+        this.fanInOffsets = fanInOffsets;
+        this.fanIns = fanIns;
+        this.levelOffsets = levelOffsets;
+        values = new long[(positions.length + 63) >>> 6];
+
+        int n = positions.length;
+        fanOutOffsets = new int[n + 1];
+        for (int k = 0; k < fanIns.length; k++) fanOutOffsets[fanIns[k] + 1]++;
+        for (int id = 0; id < n; id++) fanOutOffsets[id + 1] += fanOutOffsets[id];
+        fanOuts = new int[fanIns.length];
+        int[] fill = Arrays.copyOf(fanOutOffsets, n);
+        for (int id = 0; id < n; id++) {
+            for (int k = fanInOffsets[id]; k < fanInOffsets[id + 1]; k++) fanOuts[fill[fanIns[k]]++] = id;
+        }
+
+        ids = new HashMap<>(positions.length * 2);
+        for (int id = 0; id < positions.length; id++) ids.put(positions[id], id);
+    }
+
+    public static Netlist compile(Map<Point, ? extends Gate> gates) {
+        int n = gates.size();
+        Point[] tempPositions = gates.keySet().toArray(new Point[0]);
+        Map<Point, Integer> tempIds = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) tempIds.put(tempPositions[i], i);
+
+        // Eingänge (mit vorläufigen Nummern) und Anzahl der Ausgänge jedes Gatters bestimmen
+        int[][] tempFanIns = new int[n][];
+        int[] fanOutCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            List<Point> inputs = gates.get(tempPositions[i]).getInputs();
+            tempFanIns[i] = new int[inputs.size()];
+            for (int j = 0; j < inputs.size(); j++) {
+                int input = tempIds.get(inputs.get(j));
+                tempFanIns[i][j] = input;
+                fanOutCounts[input]++;
+            }
+        }
+        int[] fanOutOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) fanOutOffsets[i + 1] = fanOutOffsets[i] + fanOutCounts[i];
+        int[] fanOuts = new int[fanOutOffsets[n]];
+        int[] fill = Arrays.copyOf(fanOutOffsets, n);
+        for (int i = 0; i < n; i++) {
+            for (int input : tempFanIns[i]) fanOuts[fill[input]++] = i;
+        }
+
+        // Ebenen mit dem Algorithmus von Kahn bestimmen (Ebene = Länge des längsten Pfads von einem Eingang)
+        int[] pending = new int[n];
+        int[] levels = new int[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++) {
+            pending[i] = tempFanIns[i].length;
+            if (pending[i] == 0) queue[tail++] = i;
+        }
+        int levelCount = n == 0 ? 0 : 1;
+        while (head < tail) {
+            int gate = queue[head++];
+            for (int k = fanOutOffsets[gate]; k < fanOutOffsets[gate + 1]; k++) {
+                int next = fanOuts[k];
+                levels[next] = Math.max(levels[next], levels[gate] + 1);
+                levelCount = Math.max(levelCount, levels[next] + 1);
+                if (--pending[next] == 0) queue[tail++] = next;
+            }
+        }
+        if (tail != n) throw new IllegalStateException("circuit contains a loop");
+
+        // Gatter nach Ebenen sortiert neu nummerieren (Counting Sort)
+        int[] levelOffsets = new int[levelCount + 1];
+        for (int i = 0; i < n; i++) levelOffsets[levels[i] + 1]++;
+        for (int l = 0; l < levelCount; l++) levelOffsets[l + 1] += levelOffsets[l];
+        int[] newIds = new int[n];
+        int[] next = Arrays.copyOf(levelOffsets, levelCount);
+        for (int i = 0; i < n; i++) newIds[i] = next[levels[i]]++;
+
+        Point[] positions = new Point[n];
+        byte[] opcodes = new byte[n];
+        int[] fanInOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int id = newIds[i];
+            positions[id] = tempPositions[i];
+            opcodes[id] = getOpcode(gates.get(tempPositions[i]).getType());
+            fanInOffsets[id + 1] = tempFanIns[i].length;
+        }
+        for (int id = 0; id < n; id++) fanInOffsets[id + 1] += fanInOffsets[id];
+        int[] fanIns = new int[fanInOffsets[n]];
+        for (int i = 0; i < n; i++) {
+            int offset = fanInOffsets[newIds[i]];
+            for (int input : tempFanIns[i]) fanIns[offset++] = newIds[input];
+        }
+
+        Netlist netlist = new Netlist(positions, opcodes, fanInOffsets, fanIns, levelOffsets);
+        for (int id = 0; id < n; id++) {
+            if (opcodes[id] == OP_INPUT) netlist.setBit(id, gates.get(positions[id]).getOutput());
+        }
+        return netlist;
+    }
+
+    private static byte getOpcode(GateType type) {
+        return switch (type) {
+            case INPUT -> OP_INPUT;
+            case AND -> OP_AND;
+            case OR -> OP_OR;
+            case EXCLUSIVE_OR -> OP_EXCLUSIVE_OR;
+            case NOT -> OP_NOT;
+            case OUTPUT -> OP_OUTPUT;
+        };
+    }
+
+    public int size() {
+        return opcodes.length;
+    }
+
+    public int getLevelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    // Liefert -1, wenn sich an der Position kein Gatter befindet
+    public int getId(Point pos) {
+        Integer id = ids.get(pos);
+        return id == null ? -1 : id;
+    }
+
+    public Point getPosition(int id) {
+        return positions[id];
+    }
+
+    // Wurden die Werte schon berechnet, werden nur die Gatter aktualisiert, die von dem Eingang abhängen
+    public void setInput(int id, boolean value) {
+        if (opcodes[id] != OP_INPUT) throw new IllegalArgumentException("gate is not an input");
+        if (getBit(id) == value) return;
+        setBit(id, value);
+        if (!dirty) propagate(id);
+    }
+
+    // Ereignisgesteuerte Ausbreitung: Ein Gatter wird nur neu berechnet, wenn sich einer seiner Eingänge geändert hat.
+    // Da die Gatter topologisch nummeriert sind, werden sie in aufsteigender Reihenfolge abgearbeitet, sodass jedes
+    // Gatter höchstens einmal berechnet wird. Ändert sich ein Wert nicht, endet die Ausbreitung an dieser Stelle.
+    private void propagate(int changedId) {
+        if (heap == null) {
+            heap = new int[opcodes.length];
+            scheduled = new long[values.length];
+        }
+        int size = scheduleFanOuts(changedId, 0);
+        while (size > 0) {
+            int id = heap[0];
+            heap[0] = heap[--size];
+            siftDown(size);
+            scheduled[id >>> 6] &= ~(1L << id);
+
+            boolean value = computeValue(id);
+            if (value != getBit(id)) {
+                setBit(id, value);
+                size = scheduleFanOuts(id, size);
+            }
+        }
+    }
+
+    private int scheduleFanOuts(int id, int size) {
+        for (int k = fanOutOffsets[id]; k < fanOutOffsets[id + 1]; k++) {
+            int next = fanOuts[k];
+            if ((scheduled[next >>> 6] & (1L << next)) != 0) continue;
+            scheduled[next >>> 6] |= 1L << next;
+
+            // Neues Element im Heap nach oben verschieben
+            int i = size++;
+            while (i > 0 && heap[(i - 1) >>> 1] > next) {
+                heap[i] = heap[(i - 1) >>> 1];
+                i = (i - 1) >>> 1;
+            }
+            heap[i] = next;
+        }
+        return size;
+    }
+
+    private void siftDown(int size) {
+        if (size == 0) return;
+        int element = heap[0];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= element) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = element;
+    }
+
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    public boolean getValue(int id) {
+        if (dirty) evaluate();
+        return getBit(id);
+    }
+
+    // Berechnet alle Werte in einem Durchlauf (die Eingänge eines Gatters wurden immer schon vorher berechnet)
+    public void evaluate() {
+        for (int id = 0; id < opcodes.length; id++) {
+            if (opcodes[id] != OP_INPUT) setBit(id, computeValue(id));
+        }
+        dirty = false;
+    }
+
+    private boolean computeValue(int id) {
+        evaluationCount++;
+        int from = fanInOffsets[id], to = fanInOffsets[id + 1];
+        switch (opcodes[id]) {
+            case OP_AND -> {
+                if (from == to) return false;
+                for (int k = from; k < to; k++) if (!getBit(fanIns[k])) return false;
+                return true;
+            }
+            case OP_OR -> {
+                for (int k = from; k < to; k++) if (getBit(fanIns[k])) return true;
+                return false;
+            }
+            case OP_EXCLUSIVE_OR -> {
+                // Genau ein Eingang muss "wahr" sein
+                boolean seen = false;
+                for (int k = from; k < to; k++) {
+                    if (getBit(fanIns[k])) {
+                        if (seen) return false;
+                        seen = true;
+                    }
+                }
+                return seen;
+            }
+            case OP_NOT -> {
+                return from == to || !getBit(fanIns[from]);
+            }
+            case OP_OUTPUT -> {
+                return from != to && getBit(fanIns[from]);
+            }
+            default -> throw new IllegalStateException("unknown opcode");
+        }
+    }
+
+    // Bitparallele Auswertung: Jedes Bit eines Wortes steht für eine eigene Belegung der Eingänge, sodass 64 Zeilen
+    // einer Wertetabelle gleichzeitig berechnet werden. Die Wörter der Eingänge müssen vorher gesetzt werden.
+    public void evaluate(long[] words) {
+        for (int id = 0; id < opcodes.length; id++) {
+            if (opcodes[id] != OP_INPUT) words[id] = computeWord(id, words);
+        }
+    }
+
+    private long computeWord(int id, long[] words) {
+        int from = fanInOffsets[id], to = fanInOffsets[id + 1];
+        switch (opcodes[id]) {
+            case OP_AND -> {
+                if (from == to) return 0;
+                long word = -1L;
+                for (int k = from; k < to; k++) word &= words[fanIns[k]];
+                return word;
+            }
+            case OP_OR -> {
+                long word = 0;
+                for (int k = from; k < to; k++) word |= words[fanIns[k]];
+                return word;
+            }
+            case OP_EXCLUSIVE_OR -> {
+                // "one": mindestens ein Eingang ist wahr, "many": mindestens zwei Eingänge sind wahr
+                long one = 0, many = 0;
+                for (int k = from; k < to; k++) {
+                    long word = words[fanIns[k]];
+                    many |= one & word;
+                    one |= word;
+                }
+                return one & ~many;
+            }
+            case OP_NOT -> {
+                return from == to ? -1L : ~words[fanIns[from]];
+            }
+            case OP_OUTPUT -> {
+                return from == to ? 0 : words[fanIns[from]];
+            }
+            default -> throw new IllegalStateException("unknown opcode");
+        }
+    }
+
+    // Liefert das Wort für das Bit "bit" der Zeilennummern firstRow bis firstRow + 63 (firstRow muss durch 64 teilbar sein)
+    public static long getRowPattern(int bit, long firstRow) {
+        if (bit >= 6) return (firstRow >>> bit & 1) != 0 ? -1L : 0;
+        return ROW_PATTERNS[bit];
+    }
+
+    private static final long[] ROW_PATTERNS = {0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L};
+
+    private boolean getBit(int id) {
+        return (values[id >>> 6] & (1L << id)) != 0;
+    }
+
+    private void setBit(int id, boolean value) {
+        if (value) values[id >>> 6] |= 1L << id;
+        else values[id >>> 6] &= ~(1L << id);
+    }
+}
@@ -0,0 +1,43 @@
+package logicsimulator.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Zwischenspeicher für die Ausgangswerte der Gatter: Jedes Gatter merkt sich seinen zuletzt berechneten Wert zusammen
+// mit der Epoche, in der er berechnet wurde. Jede Änderung an der Schaltung beginnt eine neue Epoche, wodurch alle
+// gespeicherten Werte ungültig werden. So wird jedes Gatter pro Epoche höchstens einmal berechnet.
+// Nur die Schaltung erzeugt den Zwischenspeicher und gibt ihn an ihre Gatter weiter, nach außen werden lediglich die
+// Zähler (als Statistics) herausgegeben. Die Zähler dürfen auch aus mehreren Threads erhöht werden.
+public final class OutputCache {
+    public record Statistics(long hits, long misses) {}
+
+    private volatile long epoch;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    OutputCache() {}
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    // Wird nur von der Schaltung (bei einer Änderung, also aus einem Thread) aufgerufen
+    void invalidate() {
+        epoch++;
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "[Epoch: %d] [Hits: %d] [Misses: %d]".formatted(epoch, hits.sum(), misses.sum());
+    }
+}
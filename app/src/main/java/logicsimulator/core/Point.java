@@ -1,6 +1,14 @@
 package logicsimulator.core;
 
 public record Point(int x, int y) {
+    // Der Standard-Hashwert (31 * x + y) liefert für benachbarte Positionen aufeinanderfolgende Werte, was bei
+    // Hashtabellen mit linearer Sondierung (z. B. Set.copyOf) zu langen Ketten führt. Daher werden die Bits gemischt.
+    @Override
+    public int hashCode() {
+        long h = ((long) x << 32 | (y & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
     @Override
     public String toString() {
         return "[%d, %d]".formatted(x, y);
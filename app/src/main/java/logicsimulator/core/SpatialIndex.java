@@ -0,0 +1,99 @@
+package logicsimulator.core;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+// Räumlicher Index über die Begrenzungsrechtecke der Verbindungen (die Gatter selbst liegen schon im GateGrid nach
+// Positionen geordnet): Das Gitter wird in Zellen aus CELL_SIZE x CELL_SIZE Feldern eingeteilt, jede Zelle kennt die
+// Verbindungen, die in ihr liegen.
+// Abfragen müssen so nur die Zellen im gesuchten Rechteck untersuchen, unabhängig von der Größe der Schaltung.
+// Verbindungen, deren Begrenzungsrechteck sehr viele Zellen überdeckt, werden nicht in jede Zelle eingetragen, sondern
+// getrennt gespeichert und bei jeder Abfrage einzeln geprüft.
+final class SpatialIndex {
+    static final int CELL_SIZE = 16;
+    private static final int MAX_CONNECTION_CELLS = 16;
+
+    private final Map<Long, List<Connection>> connectionCells = new HashMap<>();
+    private final Map<Connection, Integer> longConnections = new HashMap<>(); // Verbindung → Anzahl
+
+    // Zwei Gatter können auch mehrfach verbunden sein, jede Verbindung wird daher einzeln gezählt
+    void addConnection(Connection connection) {
+        if (getCellCount(connection) > MAX_CONNECTION_CELLS) {
+            longConnections.merge(connection, 1, Integer::sum);
+            return;
+        }
+        forEachCell(connection, key -> connectionCells.computeIfAbsent(key, k -> new ArrayList<>()).add(connection));
+    }
+
+    void removeConnection(Connection connection) {
+        if (getCellCount(connection) > MAX_CONNECTION_CELLS) {
+            longConnections.computeIfPresent(connection, (c, count) -> count == 1 ? null : count - 1);
+            return;
+        }
+        forEachCell(connection, key -> {
+            List<Connection> cell = connectionCells.get(key);
+            cell.remove(connection);
+            if (cell.isEmpty()) connectionCells.remove(key);
+        });
+    }
+
+    // Jede Verbindung ist höchstens einmal enthalten
+    List<Connection> getConnectionsIn(Point min, Point max) {
+        Set<Connection> result = new LinkedHashSet<>();
+        forEachIn(connectionCells, min, max, connection -> {
+            if (intersects(min, max, connection)) result.add(connection);
+        });
+        for (Connection connection : longConnections.keySet()) {
+            if (intersects(min, max, connection)) result.add(connection);
+        }
+        return new ArrayList<>(result);
+    }
+
+    // Bei sehr großen Rechtecken werden statt aller Zellen im Rechteck nur die belegten Zellen durchlaufen
+    private static <T> void forEachIn(Map<Long, List<T>> cells, Point min, Point max, Consumer<T> action) {
+        int minX = cell(min.x()), maxX = cell(max.x()), minY = cell(min.y()), maxY = cell(max.y());
+        if (minX > maxX || minY > maxY) return;
+        if (((long) maxX - minX + 1) * ((long) maxY - minY + 1) > cells.size()) {
+            for (Map.Entry<Long, List<T>> entry : cells.entrySet()) {
+                int cellX = (int) (entry.getKey() >> 32), cellY = (int) (long) entry.getKey();
+                if (cellX >= minX && cellX <= maxX && cellY >= minY && cellY <= maxY) entry.getValue().forEach(action);
+            }
+            return;
+        }
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellY = minY; cellY <= maxY; cellY++) {
+                List<T> cell = cells.get(getCellKey(cellX, cellY));
+                if (cell != null) cell.forEach(action);
+            }
+        }
+    }
+
+    private static boolean intersects(Point min, Point max, Connection connection) {
+        Point from = connection.from(), to = connection.to();
+        return Math.max(from.x(), to.x()) >= min.x() && Math.min(from.x(), to.x()) <= max.x()
+                && Math.max(from.y(), to.y()) >= min.y() && Math.min(from.y(), to.y()) <= max.y();
+    }
+
+    private static long getCellCount(Connection connection) {
+        long width = Math.abs((long) cell(connection.from().x()) - cell(connection.to().x())) + 1;
+        long height = Math.abs((long) cell(connection.from().y()) - cell(connection.to().y())) + 1;
+        return width * height;
+    }
+
+    private static void forEachCell(Connection connection, LongConsumer action) {
+        int minX = cell(Math.min(connection.from().x(), connection.to().x())), maxX = cell(Math.max(connection.from().x(), connection.to().x()));
+        int minY = cell(Math.min(connection.from().y(), connection.to().y())), maxY = cell(Math.max(connection.from().y(), connection.to().y()));
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellY = minY; cellY <= maxY; cellY++) action.accept(getCellKey(cellX, cellY));
+        }
+    }
+
+    private static int cell(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    private static long getCellKey(int cellX, int cellY) {
+        return (long) cellX << 32 | (cellY & 0xFFFFFFFFL);
+    }
+}
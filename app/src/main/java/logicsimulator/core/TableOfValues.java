@@ -1,10 +1,126 @@
 package logicsimulator.core;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+// Wertetabelle: Die Werte der Eingänge ergeben sich aus der Zeilennummer (der erste Eingang entspricht dem
+// höchstwertigen Bit), daher werden nur die Ausgangsspalten gespeichert - als gepacktes Bitfeld mit einem Bit pro Zeile.
+public final class TableOfValues {
+    // Bei 30 Eingängen belegt jede Spalte 128 MB. Die Tabelle des ausgewählten Gatters (die in der Oberfläche angeboten
+    // und als Text in die Zwischenablage kopiert wird) ist deshalb auf 2^16 Zeilen begrenzt.
+    public static final int MAX_INPUT_COUNT = 30;
+    public static final int MAX_INTERACTIVE_INPUT_COUNT = 16;
+
+    private final int inputCount;
+    private final long[][] outputColumns;
+    private final List<String> names;
+
+    // Die Spalten werden kopiert, das Feld "outputColumns" bleibt also unverändert
+    public TableOfValues(int inputCount, long[][] outputColumns, List<String> names) {
+        this(inputCount, outputColumns, names, true);
+    }
+
+    // Übernimmt die Spalten ohne Kopie, nur für neu berechnete Spalten, auf die sonst niemand mehr zugreift
+    static TableOfValues ofComputedColumns(int inputCount, long[][] outputColumns, List<String> names) {
+        return new TableOfValues(inputCount, outputColumns, names, false);
+    }
+
+    private TableOfValues(int inputCount, long[][] outputColumns, List<String> names, boolean copy) {
+        if (inputCount < 0 || inputCount > MAX_INPUT_COUNT) throw new IllegalArgumentException("invalid number of inputs");
+        if (names.size() != inputCount + outputColumns.length) throw new IllegalArgumentException("wrong number of names");
+        int wordCount = getWordCount(inputCount);
+        for (long[] column : outputColumns) {
+            if (column.length != wordCount) throw new IllegalArgumentException("wrong column length");
+        }
+        this.inputCount = inputCount;
+        this.outputColumns = copy ? copyColumns(outputColumns) : outputColumns;
+        this.names = List.copyOf(names);
+
+        // Bits nach der letzten Zeile löschen (bei weniger als 64 Zeilen), damit equals() zuverlässig funktioniert
+        if (inputCount < 6) {
+            for (long[] column : this.outputColumns) column[0] &= (1L << (1 << inputCount)) - 1;
+        }
+    }
+
+    // Erstellt die Tabelle aus einzelnen Zeilen, die nach ihren Eingangswerten (in aufsteigender Reihenfolge der
+    // Binärzahlen) sortiert sein müssen. Alle Spalten nach den Eingängen werden als Ausgangsspalten übernommen.
+    public TableOfValues(List<List<Boolean>> values, List<String> names) {
+        this(Integer.numberOfTrailingZeros(values.size()), toOutputColumns(values), names, false);
+    }
+
+    private static long[][] copyColumns(long[][] outputColumns) {
+        return Arrays.stream(outputColumns).map(long[]::clone).toArray(long[][]::new);
+    }
+
+    private static long[][] toOutputColumns(List<List<Boolean>> values) {
+        if (values.isEmpty() || Integer.bitCount(values.size()) != 1) throw new IllegalArgumentException("invalid number of rows");
+        int inputCount = Integer.numberOfTrailingZeros(values.size());
+        int outputCount = values.get(0).size() - inputCount;
+        long[][] outputColumns = new long[outputCount][getWordCount(inputCount)];
+        for (int row = 0; row < values.size(); row++) {
+            List<Boolean> valueRow = values.get(row);
+            if (valueRow.size() != inputCount + outputCount) throw new IllegalArgumentException("rows must have the same length");
+            for (int i = 0; i < inputCount; i++) {
+                if (valueRow.get(i) != ((row >>> (inputCount - 1 - i) & 1) != 0)) throw new IllegalArgumentException("rows are not sorted");
+            }
+            for (int output = 0; output < outputCount; output++) {
+                if (valueRow.get(inputCount + output)) outputColumns[output][row >>> 6] |= 1L << row;
+            }
+        }
+        return outputColumns;
+    }
+
+    private static int getWordCount(int inputCount) {
+        return inputCount < 6 ? 1 : 1 << (inputCount - 6);
+    }
+
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    public int getOutputCount() {
+        return outputColumns.length;
+    }
+
+    public long getRowCount() {
+        return 1L << inputCount;
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean getInput(long row, int input) {
+        return (row >>> (inputCount - 1 - input) & 1) != 0;
+    }
+
+    public boolean getOutput(long row, int output) {
+        return (outputColumns[output][(int) (row >>> 6)] & (1L << row)) != 0;
+    }
+
+    // Liefert die Werte der Zeilen 64 * index bis 64 * index + 63 der Ausgangsspalte "output"
+    public long getOutputWord(int output, int index) {
+        return outputColumns[output][index];
+    }
+
+    // Ruft "consumer" für jede Zeile auf, in der die Ausgangsspalte "output" den Wert "wahr" hat (ohne Objekte zu erzeugen)
+    public void forEachMinterm(int output, LongConsumer consumer) {
+        long[] column = outputColumns[output];
+        for (int i = 0; i < column.length; i++) {
+            long word = column[i];
+            while (word != 0) {
+                consumer.accept(((long) i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    public boolean hasMinterms(int output) {
+        return Arrays.stream(outputColumns[output]).anyMatch(word -> word != 0);
+    }
 
-public record TableOfValues(List<List<Boolean>> values, List<String> names) {
     public String getTable() {
         StringBuilder s = new StringBuilder();
         String header = String.join(" | ", names);
@@ -13,32 +129,98 @@ public record TableOfValues(List<List<Boolean>> values, List<String> names) {
         int rowLength = names.stream().mapToInt(String::length).sum() + 3 * (names.size() - 1) ;
         s.append("-".repeat(rowLength)).append("\n");
 
-        for (List<Boolean> valueRow : values) {
-            String row = valueRow.stream().map(value -> value ? "1" : "0").collect(Collectors.joining(" | "));
-            s.append(row).append("\n");
+        for (long row = 0; row < getRowCount(); row++) {
+            for (int i = 0; i < inputCount; i++) s.append(getInput(row, i) ? '1' : '0').append(" | ");
+            for (int output = 0; output < outputColumns.length; output++) {
+                if (output > 0) s.append(" | ");
+                s.append(getOutput(row, output) ? '1' : '0');
+            }
+            s.append("\n");
         }
 
         return s.toString();
     }
 
-    private String getMinterm(List<Boolean> valueRow) {
-        return IntStream.range(0, valueRow.size() - 1)
-                .mapToObj(i -> valueRow.get(i) ? names.get(i) : "!" + names.get(i))
-                .collect(Collectors.joining(" ^ "));
+    private void appendMinterm(StringBuilder s, long row) {
+        for (int i = 0; i < inputCount; i++) {
+            if (i > 0) s.append(" ^ ");
+            if (!getInput(row, i)) s.append('!');
+            s.append(names.get(i));
+        }
     }
 
+    // Bezieht sich (wie bei einer einzelnen Ausgangsspalte) auf die erste Ausgangsspalte
     public String getDisjunctiveNormalForm() {
+        return getDisjunctiveNormalForm(0);
+    }
+
+    public String getDisjunctiveNormalForm(int output) {
         // Ist der Funktionswert immer "falsch", soll "0" zurückgegeben werden, damit die Ausgabe gültig bleibt
-        if (values.stream().noneMatch(valueRow -> valueRow.get(valueRow.size() - 1))) return "0";
+        if (!hasMinterms(output)) return "0";
+
+        StringBuilder s = new StringBuilder();
+        forEachMinterm(output, row -> {
+            if (!s.isEmpty()) s.append(" v ");
+            s.append('(');
+            appendMinterm(s, row);
+            s.append(')');
+        });
+        return s.toString();
+    }
+
+    // Liefert eine minimierte disjunktive Form der Ausgangsspalte "output" (siehe LogicMinimizer)
+    public List<Implicant> getMinimalImplicants(int output) {
+        return LogicMinimizer.minimize(this, output);
+    }
 
-        return values.stream().filter(valueRow -> valueRow.get(valueRow.size() - 1))
-                .map(this::getMinterm)
-                .map(minterm -> "(" + minterm + ")")
-                .collect(Collectors.joining(" v "));
+    // Wie getDisjunctiveNormalForm(), aber mit möglichst wenigen und kurzen Produkttermen
+    public String getMinimalDisjunctiveForm() {
+        return getMinimalDisjunctiveForm(0);
+    }
+
+    public String getMinimalDisjunctiveForm(int output) {
+        List<Implicant> implicants = getMinimalImplicants(output);
+        if (implicants.isEmpty()) return "0";
+        if (implicants.get(0).getLiteralCount() == 0) return "1";
+
+        StringBuilder s = new StringBuilder();
+        for (Implicant implicant : implicants) {
+            if (!s.isEmpty()) s.append(" v ");
+            if (implicant.getLiteralCount() > 1) s.append('(');
+            boolean firstLiteral = true;
+            for (int i = 0; i < inputCount; i++) {
+                int literal = implicant.getLiteral(inputCount, i);
+                if (literal < 0) continue;
+                if (!firstLiteral) s.append(" ^ ");
+                if (literal == 0) s.append('!');
+                s.append(names.get(i));
+                firstLiteral = false;
+            }
+            if (implicant.getLiteralCount() > 1) s.append(')');
+        }
+        return s.toString();
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TableOfValues table && inputCount == table.inputCount
+                && Arrays.deepEquals(outputColumns, table.outputColumns) && names.equals(table.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(inputCount, Arrays.deepHashCode(outputColumns), names);
+    }
+
+    // Bei mehreren Ausgangsspalten wird die minimierte Form jeder Spalte mit ihrem Namen ausgegeben
     @Override
     public String toString() {
-        return "%s\nDNF: %s".formatted(getTable(), getDisjunctiveNormalForm());
+        if (outputColumns.length == 1) return "%s\nDNF (minimiert): %s".formatted(getTable(), getMinimalDisjunctiveForm());
+
+        StringBuilder s = new StringBuilder(getTable()).append("\nDNF (minimiert):");
+        for (int output = 0; output < outputColumns.length; output++) {
+            s.append("\n").append(names.get(inputCount + output)).append(" = ").append(getMinimalDisjunctiveForm(output));
+        }
+        return s.toString();
     }
 }
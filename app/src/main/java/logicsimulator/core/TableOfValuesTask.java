@@ -0,0 +1,61 @@
+package logicsimulator.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Berechnet die Ausgangsspalten einer Wertetabelle parallel: Die Zeilen werden rekursiv in unabhängige Bereiche
+// aufgeteilt, die auf einem ForkJoinPool ausgewertet werden. Die kompilierte Schaltung wird dabei nur gelesen,
+// jeder Teilbereich (bis zu BLOCKS_PER_TASK Blöcke) verwendet einen eigenen Puffer für die Werte der Gatter.
+final class TableOfValuesTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private static final int BLOCKS_PER_TASK = 64; // Ein Block entspricht 64 Zeilen
+
+    private final Netlist netlist;
+    private final int[] inputIds, outputIds;
+    private final long[][] outputColumns;
+    private final int fromBlock, toBlock;
+
+    private TableOfValuesTask(Netlist netlist, int[] inputIds, int[] outputIds, long[][] outputColumns,
+                              int fromBlock, int toBlock) {
+        this.netlist = netlist;
+        this.inputIds = inputIds;
+        this.outputIds = outputIds;
+        this.outputColumns = outputColumns;
+        this.fromBlock = fromBlock;
+        this.toBlock = toBlock;
+    }
+
+    // Der erste Eingang entspricht dem höchstwertigen Bit der Zeilennummer
+    static long[][] computeOutputColumns(Netlist netlist, int[] inputIds, int[] outputIds) {
+        if (inputIds.length > TableOfValues.MAX_INPUT_COUNT) throw new IllegalArgumentException("too many inputs");
+        int blockCount = inputIds.length < 6 ? 1 : 1 << (inputIds.length - 6);
+        long[][] outputColumns = new long[outputIds.length][blockCount];
+        TableOfValuesTask task = new TableOfValuesTask(netlist, inputIds, outputIds, outputColumns, 0, blockCount);
+
+        // Kleine Tabellen werden direkt berechnet, da sich die Aufteilung dort nicht lohnt
+        if (blockCount <= BLOCKS_PER_TASK) task.compute();
+        else ForkJoinPool.commonPool().invoke(task);
+        return outputColumns;
+    }
+
+    @Override
+    protected void compute() {
+        if (toBlock - fromBlock > BLOCKS_PER_TASK) {
+            int middle = (fromBlock + toBlock) >>> 1;
+            invokeAll(new TableOfValuesTask(netlist, inputIds, outputIds, outputColumns, fromBlock, middle),
+                    new TableOfValuesTask(netlist, inputIds, outputIds, outputColumns, middle, toBlock));
+            return;
+        }
+
+        // Ein Puffer pro Teilbereich, damit nach der Berechnung nichts in den Worker-Threads zurückbleibt
+        long[] words = new long[netlist.size()];
+        for (int block = fromBlock; block < toBlock; block++) {
+            long firstRow = (long) block << 6;
+            for (int i = 0; i < inputIds.length; i++) {
+                words[inputIds[i]] = Netlist.getRowPattern(inputIds.length - 1 - i, firstRow);
+            }
+            netlist.evaluate(words);
+            for (int output = 0; output < outputIds.length; output++) outputColumns[output][block] = words[outputIds[output]];
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package logicsimulator.core;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Topologische Reihenfolge der Gatter, die bei neuen Verbindungen schrittweise angepasst wird (Pearce-Kelly).
+// Jedes Gatter steht vor allen Gattern, die es (direkt oder über andere Gatter) ansteuert. Beim Prüfen einer neuen
+// Verbindung müssen daher nur die Gatter untersucht werden, die in der Reihenfolge zwischen den beiden Gattern liegen.
+final class TopologicalOrder {
+    private final Map<Point, Integer> order = new HashMap<>();
+    private final Function<Point, List<Point>> predecessors, successors;
+    private int nextOrder = 0;
+
+    TopologicalOrder(Function<Point, List<Point>> predecessors, Function<Point, List<Point>> successors) {
+        this.predecessors = predecessors;
+        this.successors = successors;
+    }
+
+    // Neue Gatter haben noch keine Verbindungen und können daher einfach ans Ende gestellt werden
+    void addNode(Point pos) {
+        order.put(pos, nextOrder++);
+    }
+
+    void removeNode(Point pos) {
+        order.remove(pos);
+    }
+
+    // Ordnet die Gatter so um, dass "from" vor "to" steht. Ist das nicht möglich, weil "to" (auch über andere Gatter)
+    // mit "from" verbunden ist, wird "false" zurückgegeben und die Reihenfolge bleibt unverändert.
+    boolean placeBefore(Point from, Point to) {
+        if (from.equals(to)) return false;
+        int lowerBound = order.get(to), upperBound = order.get(from);
+        if (upperBound < lowerBound) return true;
+
+        // Vorwärtssuche ab "to": nur Gatter, die in der Reihenfolge vor "from" stehen, können betroffen sein
+        List<Point> forward = new ArrayList<>();
+        Set<Point> visited = new HashSet<>(Set.of(to));
+        Deque<Point> stack = new ArrayDeque<>(List.of(to));
+        while (!stack.isEmpty()) {
+            Point pos = stack.pop();
+            forward.add(pos);
+            for (Point next : successors.apply(pos)) {
+                if (next.equals(from)) return false;
+                if (order.get(next) < upperBound && visited.add(next)) stack.push(next);
+            }
+        }
+
+        // Rückwärtssuche ab "from": nur Gatter, die in der Reihenfolge nach "to" stehen, können betroffen sein
+        List<Point> backward = new ArrayList<>();
+        visited.add(from);
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Point pos = stack.pop();
+            backward.add(pos);
+            for (Point previous : predecessors.apply(pos)) {
+                if (order.get(previous) > lowerBound && visited.add(previous)) stack.push(previous);
+            }
+        }
+
+        // Die frei werdenden Positionen zuerst an die Gatter der Rückwärtssuche und danach an die Gatter der
+        // Vorwärtssuche verteilen (jeweils unter Beibehaltung ihrer bisherigen Reihenfolge)
+        Comparator<Point> byOrder = Comparator.comparing(order::get);
+        backward.sort(byOrder);
+        forward.sort(byOrder);
+        int[] positions = new int[backward.size() + forward.size()];
+        int i = 0;
+        for (Point pos : backward) positions[i++] = order.get(pos);
+        for (Point pos : forward) positions[i++] = order.get(pos);
+        Arrays.sort(positions);
+        i = 0;
+        for (Point pos : backward) order.put(pos, positions[i++]);
+        for (Point pos : forward) order.put(pos, positions[i++]);
+        return true;
+    }
+}
@@ -0,0 +1,301 @@
+package logicsimulator.core.bdd;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Reduzierte geordnete binäre Entscheidungsdiagramme (ROBDDs) mit fester Variablenreihenfolge 0, 1, ..., n - 1.
+// Knoten werden als int-Handles verwaltet (0 = falsch, 1 = wahr). Die Unique-Table stellt sicher, dass es jeden Knoten
+// nur einmal gibt, womit zwei Funktionen genau dann gleich sind, wenn ihre Handles gleich sind. Ergebnisse von ite()
+// werden in einem direkt adressierten Cache gespeichert.
+// Knoten, die außerhalb des Managers weiterverwendet werden sollen, müssen mit ref() markiert werden: Alle anderen
+// Knoten können bei der Garbage Collection (zu Beginn einer Operation, wenn die Tabelle voll ist) entfernt werden.
+public final class BddManager {
+    public static final int FALSE = 0, TRUE = 1;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int CACHE_SIZE = 1 << 16;
+
+    private final int variableCount;
+
+    // Knoten als Struct-of-Arrays, freie Einträge sind über "next" verkettet
+    private int[] variables, lows, highs, next, refCounts;
+    private int[] buckets; // Unique-Table: Verkettete Listen über "next"
+    private int freeList = -1;
+    private int nodeCount = 2;
+    private int gcThreshold = INITIAL_CAPACITY;
+    private int gcCount = 0;
+
+    // Computed-Table für ite(f, g, h)
+    private final int[] cacheF = new int[CACHE_SIZE], cacheG = new int[CACHE_SIZE], cacheH = new int[CACHE_SIZE];
+    private final int[] cacheResults = new int[CACHE_SIZE];
+
+    public BddManager(int variableCount) {
+        if (variableCount < 0) throw new IllegalArgumentException("invalid number of variables");
+        this.variableCount = variableCount;
+        variables = new int[INITIAL_CAPACITY];
+        lows = new int[INITIAL_CAPACITY];
+        highs = new int[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+        refCounts = new int[INITIAL_CAPACITY];
+        buckets = new int[INITIAL_CAPACITY];
+        Arrays.fill(buckets, -1);
+        Arrays.fill(cacheF, -1);
+
+        // Die Terminale stehen hinter allen Variablen und werden nie entfernt
+        variables[FALSE] = variables[TRUE] = variableCount;
+        refCounts[FALSE] = refCounts[TRUE] = 1;
+        for (int i = INITIAL_CAPACITY - 1; i >= 2; i--) addToFreeList(i);
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    // Anzahl der Knoten, die gerade in der Unique-Table stehen (einschließlich der Terminale)
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getGarbageCollectionCount() {
+        return gcCount;
+    }
+
+    public int variable(int variable) {
+        if (variable < 0 || variable >= variableCount) throw new IllegalArgumentException("invalid variable");
+        collectGarbageIfNeeded();
+        return makeNode(variable, FALSE, TRUE);
+    }
+
+    public int getVariable(int node) {
+        return variables[node];
+    }
+
+    public int getLow(int node) {
+        return lows[node];
+    }
+
+    public int getHigh(int node) {
+        return highs[node];
+    }
+
+    public int ref(int node) {
+        refCounts[node]++;
+        return node;
+    }
+
+    public void deref(int node) {
+        if (refCounts[node] <= 0) throw new IllegalStateException("node is not referenced");
+        refCounts[node]--;
+    }
+
+    public int not(int f) {
+        return ite(f, FALSE, TRUE);
+    }
+
+    public int and(int f, int g) {
+        return ite(f, g, FALSE);
+    }
+
+    public int or(int f, int g) {
+        return ite(f, TRUE, g);
+    }
+
+    // not(g) wird im selben Durchlauf berechnet, da "f" sonst bei einer Garbage Collection in not() entfernt werden könnte
+    public int xor(int f, int g) {
+        collectGarbageIfNeeded(f, g);
+        return computeIte(f, computeIte(g, FALSE, TRUE), g);
+    }
+
+    // If-then-else: (f ^ g) v (!f ^ h). Alle anderen Verknüpfungen lassen sich darauf zurückführen.
+    public int ite(int f, int g, int h) {
+        collectGarbageIfNeeded(f, g, h);
+        return computeIte(f, g, h);
+    }
+
+    private int computeIte(int f, int g, int h) {
+        if (f == TRUE) return g;
+        if (f == FALSE) return h;
+        if (g == h) return g;
+        if (g == TRUE && h == FALSE) return f;
+
+        int slot = cacheSlot(f, g, h);
+        if (cacheF[slot] == f && cacheG[slot] == g && cacheH[slot] == h) return cacheResults[slot];
+
+        int variable = Math.min(variables[f], Math.min(variables[g], variables[h]));
+        int low = computeIte(cofactor(f, variable, false), cofactor(g, variable, false), cofactor(h, variable, false));
+        int high = computeIte(cofactor(f, variable, true), cofactor(g, variable, true), cofactor(h, variable, true));
+        int result = makeNode(variable, low, high);
+
+        cacheF[slot] = f;
+        cacheG[slot] = g;
+        cacheH[slot] = h;
+        cacheResults[slot] = result;
+        return result;
+    }
+
+    private int cofactor(int node, int variable, boolean value) {
+        if (variables[node] != variable) return node;
+        return value ? highs[node] : lows[node];
+    }
+
+    private static int cacheSlot(int f, int g, int h) {
+        int hash = f * 0x9E3779B1 + g * 0x85EBCA77 + h * 0xC2B2AE3D;
+        return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    }
+
+    private int makeNode(int variable, int low, int high) {
+        if (low == high) return low;
+
+        int bucket = bucket(variable, low, high);
+        for (int node = buckets[bucket]; node >= 0; node = next[node]) {
+            if (variables[node] == variable && lows[node] == low && highs[node] == high) return node;
+        }
+
+        if (freeList < 0) grow();
+        int node = freeList;
+        freeList = next[node];
+        variables[node] = variable;
+        lows[node] = low;
+        highs[node] = high;
+        bucket = bucket(variable, low, high); // Die Tabelle ist beim Vergrößern eventuell neu aufgebaut worden
+        next[node] = buckets[bucket];
+        buckets[bucket] = node;
+        nodeCount++;
+        return node;
+    }
+
+    private int bucket(int variable, int low, int high) {
+        int hash = variable * 0x27D4EB2F + low * 0x165667B1 + high * 0x9E3779B1;
+        return (hash ^ (hash >>> 15)) & (buckets.length - 1);
+    }
+
+    private void addToFreeList(int node) {
+        variables[node] = -1;
+        next[node] = freeList;
+        freeList = node;
+    }
+
+    private void grow() {
+        int oldCapacity = variables.length;
+        int capacity = oldCapacity * 2;
+        variables = Arrays.copyOf(variables, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        next = Arrays.copyOf(next, capacity);
+        refCounts = Arrays.copyOf(refCounts, capacity);
+        for (int i = capacity - 1; i >= oldCapacity; i--) addToFreeList(i);
+        rehash(capacity);
+    }
+
+    private void rehash(int bucketCount) {
+        buckets = new int[bucketCount];
+        Arrays.fill(buckets, -1);
+        for (int node = 2; node < variables.length; node++) {
+            if (variables[node] < 0) continue;
+            int bucket = bucket(variables[node], lows[node], highs[node]);
+            next[node] = buckets[bucket];
+            buckets[bucket] = node;
+        }
+    }
+
+    // Garbage Collection findet nur zu Beginn einer Operation statt, da dann (außer den Operanden) keine
+    // Zwischenergebnisse existieren, die noch nicht mit ref() markiert sind
+    private void collectGarbageIfNeeded(int... operands) {
+        if (nodeCount < gcThreshold) return;
+        collectGarbage(operands);
+        // Wenn die meisten Knoten noch verwendet werden, lohnt sich die nächste Garbage Collection erst später
+        if (nodeCount > gcThreshold / 2) gcThreshold *= 2;
+    }
+
+    public void collectGarbage(int... operands) {
+        boolean[] marked = new boolean[variables.length];
+        int[] stack = new int[2 * variables.length + operands.length];
+        int size = 0;
+        for (int node = 0; node < variables.length; node++) {
+            if (variables[node] >= 0 && refCounts[node] > 0) stack[size++] = node;
+        }
+        for (int operand : operands) stack[size++] = operand;
+        while (size > 0) {
+            int node = stack[--size];
+            if (marked[node]) continue;
+            marked[node] = true;
+            if (node > TRUE) {
+                stack[size++] = lows[node];
+                stack[size++] = highs[node];
+            }
+        }
+
+        for (int node = variables.length - 1; node >= 2; node--) {
+            if (variables[node] >= 0 && !marked[node]) {
+                addToFreeList(node);
+                nodeCount--;
+            }
+        }
+        rehash(buckets.length);
+        Arrays.fill(cacheF, -1);
+        gcCount++;
+    }
+
+    // Anzahl der Belegungen aller Variablen, für die die Funktion wahr ist
+    public BigInteger satCount(int f) {
+        return countBelow(f, new HashMap<>()).shiftLeft(variables[f]);
+    }
+
+    // Zählt die Belegungen der Variablen ab der Variablen des Knotens
+    private BigInteger countBelow(int node, Map<Integer, BigInteger> counts) {
+        if (node == FALSE) return BigInteger.ZERO;
+        if (node == TRUE) return BigInteger.ONE;
+        BigInteger count = counts.get(node);
+        if (count != null) return count;
+
+        int low = lows[node], high = highs[node];
+        count = countBelow(low, counts).shiftLeft(variables[low] - variables[node] - 1)
+                .add(countBelow(high, counts).shiftLeft(variables[high] - variables[node] - 1));
+        counts.put(node, count);
+        return count;
+    }
+
+    // Anzahl der inneren Knoten, die von "f" aus erreichbar sind
+    public int size(int f) {
+        boolean[] visited = new boolean[variables.length];
+        int[] stack = new int[2 * variables.length + 1];
+        int size = 0, count = 0;
+        stack[size++] = f;
+        while (size > 0) {
+            int node = stack[--size];
+            if (node <= TRUE || visited[node]) continue;
+            visited[node] = true;
+            count++;
+            stack[size++] = lows[node];
+            stack[size++] = highs[node];
+        }
+        return count;
+    }
+
+    // Liefert eine Belegung aller Variablen, für die die Funktion wahr ist (nicht benötigte Variablen sind falsch)
+    public Optional<boolean[]> getSatisfyingAssignment(int f) {
+        if (f == FALSE) return Optional.empty();
+        boolean[] assignment = new boolean[variableCount];
+        // Jeder innere Knoten eines reduzierten BDDs hat einen Pfad zum Terminal "wahr"
+        while (f != TRUE) {
+            if (lows[f] != FALSE) {
+                f = lows[f];
+            } else {
+                assignment[variables[f]] = true;
+                f = highs[f];
+            }
+        }
+        return Optional.of(assignment);
+    }
+
+    public boolean isTautology(int f) {
+        return f == TRUE;
+    }
+
+    public boolean isConstant(int f) {
+        return f == FALSE || f == TRUE;
+    }
+}
@@ -0,0 +1,118 @@
+package logicsimulator.core.bdd;
+
+import logicsimulator.core.BooleanFunctionRenderer;
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.GateType;
+
+import java.math.BigInteger;
+import java.util.*;
+
+// Symbolische Darstellung aller Ausgänge einer Schaltung als BDDs. Die Variablenreihenfolge ergibt sich aus einer
+// Tiefensuche ab den Ausgängen (Eingänge, die in der Schaltung nahe beieinander liegen, stehen auch im BDD nebeneinander),
+// Eingänge, die keinen Ausgang beeinflussen, kommen danach. Alle Auswertungen arbeiten direkt auf den BDDs, ihr Aufwand
+// hängt also von der Größe der BDDs und nicht von der Anzahl der Zeilen der Wertetabelle ab.
+public final class CircuitBdd {
+    private final BddManager manager;
+    private final List<String> variableNames;
+    private final Map<String, Integer> outputs = new TreeMap<>();
+
+    public CircuitBdd(LogicCircuit circuit) {
+        List<Point> outputPositions = new ArrayList<>(), inputPositions = new ArrayList<>();
+        for (Point pos : circuit.getGatePositions()) {
+            GateType type = circuit.getGateAt(pos).getType();
+            if (type == GateType.OUTPUT) outputPositions.add(pos);
+            else if (type == GateType.INPUT) inputPositions.add(pos);
+        }
+        Comparator<Point> byName = Comparator.comparing(pos -> circuit.getGateAt(pos).getName().orElseThrow());
+        outputPositions.sort(byName);
+        inputPositions.sort(byName);
+
+        // Gleiche Teilschaltungen werden durch das strukturelle Hashing nur einmal in BDDs umgewandelt
+        StructuralHash strash = new StructuralHash();
+        int[] roots = outputPositions.stream().mapToInt(pos -> strash.add(circuit, pos)).toArray();
+        for (Point pos : inputPositions) strash.addVariable(circuit.getGateAt(pos).getName().orElseThrow());
+        variableNames = strash.getVariableNames();
+
+        manager = new BddManager(variableNames.size());
+        int[] nodes = strash.toBdds(manager, roots);
+        for (int i = 0; i < nodes.length; i++) {
+            outputs.put(circuit.getGateAt(outputPositions.get(i)).getName().orElseThrow(), nodes[i]);
+        }
+    }
+
+    public BddManager getManager() {
+        return manager;
+    }
+
+    // Namen der Eingänge in der Reihenfolge der BDD-Variablen
+    public List<String> getVariableNames() {
+        return variableNames;
+    }
+
+    public Set<String> getOutputNames() {
+        return Collections.unmodifiableSet(outputs.keySet());
+    }
+
+    public int getOutput(String name) {
+        Integer node = outputs.get(name);
+        if (node == null) throw new IllegalArgumentException("unknown output");
+        return node;
+    }
+
+    // Anzahl der Belegungen aller Eingänge, für die der Ausgang wahr ist
+    public BigInteger satCount(String output) {
+        return manager.satCount(getOutput(output));
+    }
+
+    public boolean isTautology(String output) {
+        return manager.isTautology(getOutput(output));
+    }
+
+    public boolean isConstant(String output) {
+        return manager.isConstant(getOutput(output));
+    }
+
+    public String getDisjunctiveForm(String output) {
+        return getDisjunctiveForm(output, BooleanFunctionRenderer.DEFAULT_MAX_LENGTH);
+    }
+
+    // Disjunktive Form mit einem Produktterm pro Pfad zum Terminal "wahr" (die Terme sind paarweise disjunkt).
+    // Da die Anzahl der Pfade exponentiell wachsen kann, wird die Ausgabe wie bei BooleanFunctionRenderer begrenzt.
+    public String getDisjunctiveForm(String output, int maxLength) {
+        int root = getOutput(output);
+        if (root == BddManager.FALSE) return "0";
+        if (root == BddManager.TRUE) return "1";
+
+        StringBuilder s = new StringBuilder();
+        Deque<String> literals = new ArrayDeque<>();
+        return appendPaths(s, root, literals, maxLength) ? s.toString() : s.append(" ...").toString();
+    }
+
+    private boolean appendPaths(StringBuilder s, int node, Deque<String> literals, int maxLength) {
+        if (node == BddManager.FALSE) return true;
+        if (node == BddManager.TRUE) {
+            if (!s.isEmpty()) s.append(" v ");
+            if (literals.size() > 1) s.append('(');
+            Iterator<String> it = literals.descendingIterator();
+            while (it.hasNext()) {
+                s.append(it.next());
+                if (it.hasNext()) s.append(" ^ ");
+            }
+            if (literals.size() > 1) s.append(')');
+            if (s.length() <= maxLength) return true;
+            s.setLength(maxLength);
+            return false;
+        }
+
+        String name = variableNames.get(manager.getVariable(node));
+        literals.push("!" + name);
+        boolean completed = appendPaths(s, manager.getLow(node), literals, maxLength);
+        literals.pop();
+        if (!completed) return false;
+        literals.push(name);
+        completed = appendPaths(s, manager.getHigh(node), literals, maxLength);
+        literals.pop();
+        return completed;
+    }
+}
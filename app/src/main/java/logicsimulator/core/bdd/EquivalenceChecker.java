@@ -0,0 +1,81 @@
+package logicsimulator.core.bdd;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.GateType;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Äquivalenzprüfung von Gattern bzw. ganzen Schaltungen, deren Eingänge und Ausgänge über ihre Namen zugeordnet werden.
+// Beide Seiten werden zuerst gemeinsam strukturell gehasht: Gleich aufgebaute Ausgänge erhalten dabei dieselbe
+// Knotennummer und sind ohne weitere Rechnung äquivalent. Nur für die übrigen Ausgänge werden BDDs erzeugt, die
+// (da sie kanonisch sind) genau dann gleich sind, wenn die Funktionen übereinstimmen.
+public final class EquivalenceChecker {
+    private EquivalenceChecker() {}
+
+    public static EquivalenceResult check(LogicCircuit circuit, Point pos, LogicCircuit otherCircuit, Point otherPos) {
+        if (pos == null || circuit.getGateAt(pos) == null) throw new IllegalArgumentException("invalid position");
+        if (otherPos == null || otherCircuit.getGateAt(otherPos) == null) throw new IllegalArgumentException("invalid position");
+
+        StructuralHash strash = new StructuralHash();
+        int[] roots = {strash.add(circuit, pos)};
+        int[] otherRoots = {strash.add(otherCircuit, otherPos)};
+        addInputs(strash, circuit);
+        addInputs(strash, otherCircuit);
+        return compare(strash, Collections.singletonList(circuit.getGateAt(pos).getName().orElse(null)), roots, otherRoots);
+    }
+
+    // Beide Schaltungen müssen Ausgänge mit denselben Namen haben, Eingänge, die es nur in einer der beiden Schaltungen
+    // gibt, haben auf die andere Schaltung keinen Einfluss
+    public static EquivalenceResult check(LogicCircuit circuit, LogicCircuit otherCircuit) {
+        Map<String, Point> outputs = getOutputs(circuit), otherOutputs = getOutputs(otherCircuit);
+        if (!outputs.keySet().equals(otherOutputs.keySet())) throw new IllegalArgumentException("outputs do not match");
+
+        StructuralHash strash = new StructuralHash();
+        int[] roots = outputs.values().stream().mapToInt(pos -> strash.add(circuit, pos)).toArray();
+        int[] otherRoots = otherOutputs.values().stream().mapToInt(pos -> strash.add(otherCircuit, pos)).toArray();
+        addInputs(strash, circuit);
+        addInputs(strash, otherCircuit);
+        return compare(strash, new ArrayList<>(outputs.keySet()), roots, otherRoots);
+    }
+
+    private static Map<String, Point> getOutputs(LogicCircuit circuit) {
+        return circuit.getGatePositions().stream().filter(pos -> circuit.getGateAt(pos).getType() == GateType.OUTPUT)
+                .collect(Collectors.toMap(pos -> circuit.getGateAt(pos).getName().orElseThrow(), pos -> pos,
+                        (a, b) -> { throw new IllegalArgumentException("duplicate output name"); }, TreeMap::new));
+    }
+
+    // Auch Eingänge, die keinen Ausgang beeinflussen, sollen im Gegenbeispiel vorkommen
+    private static void addInputs(StructuralHash strash, LogicCircuit circuit) {
+        circuit.getGatePositions().stream().map(circuit::getGateAt).filter(gate -> gate.getType() == GateType.INPUT)
+                .map(gate -> gate.getName().orElseThrow()).sorted().forEach(strash::addVariable);
+    }
+
+    private static EquivalenceResult compare(StructuralHash strash, List<String> names, int[] roots, int[] otherRoots) {
+        List<Integer> differing = new ArrayList<>();
+        for (int i = 0; i < roots.length; i++) {
+            if (roots[i] != otherRoots[i]) differing.add(i);
+        }
+        if (differing.isEmpty()) return EquivalenceResult.EQUIVALENT;
+
+        // Die BDDs beider Seiten werden im selben Manager erzeugt, damit sie direkt vergleichbar sind
+        List<String> variableNames = strash.getVariableNames();
+        BddManager manager = new BddManager(variableNames.size());
+        int[] pairs = differing.stream().flatMapToInt(i -> Arrays.stream(new int[] {roots[i], otherRoots[i]})).toArray();
+        int[] nodes = strash.toBdds(manager, pairs);
+        for (int i = 0; i < differing.size(); i++) {
+            int f = nodes[2 * i], g = nodes[2 * i + 1];
+            if (f == g) continue;
+
+            boolean[] assignment = manager.getSatisfyingAssignment(manager.xor(f, g)).orElseThrow();
+            Map<String, Boolean> counterexample = new TreeMap<>();
+            for (int variable = 0; variable < assignment.length; variable++) {
+                counterexample.put(variableNames.get(variable), assignment[variable]);
+            }
+            return new EquivalenceResult(false, Optional.ofNullable(names.get(differing.get(i))),
+                    Collections.unmodifiableMap(counterexample));
+        }
+        return EquivalenceResult.EQUIVALENT;
+    }
+}
@@ -0,0 +1,10 @@
+package logicsimulator.core.bdd;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Ergebnis einer Äquivalenzprüfung: Sind die Funktionen verschieden, enthält "counterexample" eine Belegung aller
+// Eingänge (nach Namen), für die sich der Ausgang "output" unterscheidet
+public record EquivalenceResult(boolean isEquivalent, Optional<String> output, Map<String, Boolean> counterexample) {
+    static final EquivalenceResult EQUIVALENT = new EquivalenceResult(true, Optional.empty(), Map.of());
+}
@@ -0,0 +1,196 @@
+package logicsimulator.core.bdd;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
+
+import java.util.*;
+import java.util.function.IntBinaryOperator;
+
+// Strukturelles Hashing: Gatter (auch aus verschiedenen Schaltungen) mit demselben Typ und denselben Eingängen werden
+// zu einem Knoten zusammengefasst, Eingänge werden über ihren Namen identifiziert. Dabei werden Konstanten
+// weitergereicht, doppelte Negationen entfernt und die Eingänge von AND-, OR- und XOR-Gattern sortiert. Zwei Gatter,
+// die sich nur durch solche Umformungen unterscheiden, erhalten dieselbe Knotennummer.
+// Jeder Knoten hat eine größere Nummer als seine Eingänge, die Knoten sind also topologisch sortiert.
+final class StructuralHash {
+    static final int FALSE = 0, TRUE = 1;
+
+    // Bei Eingängen enthält "inputs" die Nummer der Variablen
+    private record Key(GateType type, List<Integer> inputs) {}
+
+    private final Map<Key, Integer> ids = new HashMap<>();
+    private final List<Key> keys = new ArrayList<>();
+    private final Map<String, Integer> variables = new HashMap<>();
+    private final List<String> variableNames = new ArrayList<>();
+    private final Map<LogicCircuit, Map<Point, Integer>> gateIds = new IdentityHashMap<>();
+
+    StructuralHash() {
+        // Ein AND-Gatter ohne Eingänge ist immer falsch, ein NOT-Gatter ohne Eingang immer wahr
+        makeNode(new Key(GateType.AND, List.of()));
+        makeNode(new Key(GateType.NOT, List.of()));
+    }
+
+    // Namen der Eingänge in der Reihenfolge, in der sie zum ersten Mal verwendet wurden
+    List<String> getVariableNames() {
+        return Collections.unmodifiableList(variableNames);
+    }
+
+    int addVariable(String name) {
+        return variables.computeIfAbsent(name, n -> {
+            variableNames.add(n);
+            return variableNames.size() - 1;
+        });
+    }
+
+    // Fügt das Gatter an der Position "root" und alle Gatter, von denen es abhängt, hinzu und liefert seine Knotennummer
+    int add(LogicCircuit circuit, Point root) {
+        Map<Point, Integer> known = gateIds.computeIfAbsent(circuit, c -> new HashMap<>());
+        if (known.containsKey(root)) return known.get(root);
+
+        Deque<Point> stack = new ArrayDeque<>(List.of(root));
+        Deque<Iterator<Point>> inputs = new ArrayDeque<>(List.of(circuit.getGateAt(root).getInputs().iterator()));
+        Set<Point> visited = new HashSet<>(Set.of(root));
+        while (!stack.isEmpty()) {
+            if (inputs.peek().hasNext()) {
+                Point input = inputs.peek().next();
+                if (!known.containsKey(input) && visited.add(input)) {
+                    stack.push(input);
+                    inputs.push(circuit.getGateAt(input).getInputs().iterator());
+                }
+            } else {
+                Point pos = stack.pop();
+                inputs.pop();
+                Gate gate = circuit.getGateAt(pos);
+                int[] inputIds = gate.getInputs().stream().mapToInt(known::get).toArray();
+                int id = gate.getType() == GateType.INPUT
+                        ? makeNode(new Key(GateType.INPUT, List.of(addVariable(gate.getName().orElseThrow()))))
+                        : makeGate(gate.getType(), inputIds);
+                known.put(pos, id);
+            }
+        }
+        return known.get(root);
+    }
+
+    private int makeGate(GateType type, int[] inputs) {
+        return switch (type) {
+            case OUTPUT -> inputs.length == 0 ? FALSE : inputs[0];
+            case NOT -> makeNot(inputs.length == 0 ? FALSE : inputs[0]);
+            case AND -> inputs.length == 0 ? FALSE : makeAndOr(GateType.AND, inputs, FALSE, TRUE);
+            case OR -> makeAndOr(GateType.OR, inputs, TRUE, FALSE);
+            case EXCLUSIVE_OR -> makeExactlyOne(inputs);
+            case INPUT -> throw new IllegalArgumentException("inputs are identified by name");
+        };
+    }
+
+    private int makeNot(int input) {
+        if (input <= TRUE) return TRUE - input;
+        Key key = keys.get(input);
+        if (key.type() == GateType.NOT) return key.inputs().get(0);
+        return makeNode(new Key(GateType.NOT, List.of(input)));
+    }
+
+    // "dominant" bestimmt das Ergebnis allein, "neutral" hat keinen Einfluss (bei AND-Gattern "falsch" und "wahr")
+    private int makeAndOr(GateType type, int[] inputs, int dominant, int neutral) {
+        TreeSet<Integer> operands = new TreeSet<>();
+        for (int input : inputs) {
+            if (input == dominant) return dominant;
+            if (input != neutral) operands.add(input);
+        }
+        if (operands.isEmpty()) return neutral;
+        if (operands.size() == 1) return operands.first();
+        return makeNode(new Key(type, List.copyOf(operands)));
+    }
+
+    // Doppelte Eingänge dürfen hier nicht zusammengefasst werden, da ein zweimal angeschlossener wahrer Eingang
+    // das Gatter falsch macht
+    private int makeExactlyOne(int[] inputs) {
+        List<Integer> operands = new ArrayList<>();
+        int trueCount = 0;
+        for (int input : inputs) {
+            if (input == TRUE) trueCount++;
+            else if (input != FALSE) operands.add(input);
+        }
+        if (trueCount > 1) return FALSE;
+        if (trueCount == 1) {
+            // Alle anderen Eingänge müssen falsch sein
+            int[] others = operands.stream().mapToInt(Integer::intValue).toArray();
+            return makeNot(makeAndOr(GateType.OR, others, TRUE, FALSE));
+        }
+        if (operands.isEmpty()) return FALSE;
+        if (operands.size() == 1) return operands.get(0);
+        Collections.sort(operands);
+        return makeNode(new Key(GateType.EXCLUSIVE_OR, List.copyOf(operands)));
+    }
+
+    private int makeNode(Key key) {
+        return ids.computeIfAbsent(key, k -> {
+            keys.add(k);
+            return keys.size() - 1;
+        });
+    }
+
+    // Erzeugt die BDDs der Knoten "roots" (nur die Knoten, von denen sie abhängen, werden dafür umgewandelt).
+    // Die Variablen des Managers entsprechen getVariableNames(), die Ergebnisse sind mit ref() markiert.
+    int[] toBdds(BddManager manager, int... roots) {
+        boolean[] needed = new boolean[keys.size()];
+        for (int root : roots) needed[root] = true;
+        for (int id = keys.size() - 1; id > TRUE; id--) {
+            Key key = keys.get(id);
+            if (needed[id] && key.type() != GateType.INPUT) key.inputs().forEach(input -> needed[input] = true);
+        }
+
+        int[] nodes = new int[keys.size()];
+        nodes[FALSE] = BddManager.FALSE;
+        nodes[TRUE] = BddManager.TRUE;
+        for (int id = TRUE + 1; id < keys.size(); id++) {
+            if (!needed[id]) continue;
+            Key key = keys.get(id);
+            if (key.type() == GateType.INPUT) {
+                nodes[id] = manager.ref(manager.variable(key.inputs().get(0)));
+                continue;
+            }
+            int[] inputs = key.inputs().stream().mapToInt(input -> nodes[input]).toArray();
+            nodes[id] = manager.ref(switch (key.type()) {
+                case NOT -> manager.not(inputs[0]);
+                case AND -> reduce(manager, inputs, manager::and);
+                case OR -> reduce(manager, inputs, manager::or);
+                case EXCLUSIVE_OR -> exactlyOne(manager, inputs);
+                case INPUT, OUTPUT -> throw new IllegalStateException("unexpected node type");
+            });
+        }
+
+        int[] results = Arrays.stream(roots).map(root -> manager.ref(nodes[root])).toArray();
+        for (int id = TRUE + 1; id < keys.size(); id++) {
+            if (needed[id]) manager.deref(nodes[id]);
+        }
+        return results;
+    }
+
+    private static int reduce(BddManager manager, int[] inputs, IntBinaryOperator operation) {
+        int result = manager.ref(inputs[0]);
+        for (int i = 1; i < inputs.length; i++) {
+            int next = manager.ref(operation.applyAsInt(result, inputs[i]));
+            manager.deref(result);
+            result = next;
+        }
+        manager.deref(result);
+        return result;
+    }
+
+    // Ein XOR-Gatter ist genau dann wahr, wenn genau einer seiner Eingänge wahr ist
+    private static int exactlyOne(BddManager manager, int[] inputs) {
+        int none = manager.ref(BddManager.TRUE), one = manager.ref(BddManager.FALSE);
+        for (int input : inputs) {
+            int nextOne = manager.ref(manager.ite(input, none, one));
+            int nextNone = manager.ref(manager.and(manager.not(input), none));
+            manager.deref(one);
+            manager.deref(none);
+            one = nextOne;
+            none = nextNone;
+        }
+        manager.deref(none);
+        manager.deref(one);
+        return one;
+    }
+}
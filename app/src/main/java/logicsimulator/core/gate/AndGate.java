@@ -1,27 +1,18 @@
 package logicsimulator.core.gate;
 
 import logicsimulator.core.LogicCircuit;
-import logicsimulator.core.Point;
+import logicsimulator.core.OutputCache;
 
 public class AndGate extends MultipleInputGate {
-    public AndGate(LogicCircuit circuit) {
-        super(circuit, "^");
-    }
-
-    protected AndGate(AndGate oldGate, Point newPos) {
-        super(oldGate, newPos);
-    }
-
-    @Override
-    public Gate addInput(Point pos) {
-        return new AndGate(this, pos);
+    public AndGate(LogicCircuit circuit, OutputCache outputCache) {
+        super(circuit, outputCache, getSymbol(GateType.AND));
     }
 
     public GateType getType() {
         return GateType.AND;
     }
 
-    public boolean getOutput() {
+    protected boolean computeOutput() {
         if (getInputs().isEmpty()) return false;
         return getInputs().stream().map(circuit::getGateAt).allMatch(Gate::getOutput);
     }
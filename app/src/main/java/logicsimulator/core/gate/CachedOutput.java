@@ -0,0 +1,31 @@
+package logicsimulator.core.gate;
+
+import logicsimulator.core.OutputCache;
+
+import java.util.function.BooleanSupplier;
+
+// Zuletzt berechneter Ausgangswert eines Gatters zusammen mit der Epoche des Zwischenspeichers, in der er berechnet
+// wurde. Beides steht in einem einzigen volatile long (Epoche um ein Bit nach links verschoben, der Wert im untersten
+// Bit), damit andere Threads nie eine neue Epoche mit einem alten Wert sehen. Die Epoche wird vor der Berechnung
+// gelesen: Wird die Schaltung währenddessen geändert, gilt der Wert nur für die alte Epoche.
+final class CachedOutput {
+    private final OutputCache outputCache;
+    private volatile long state = -1; // Noch kein Wert (die Epochen sind nie negativ)
+
+    CachedOutput(OutputCache outputCache) {
+        this.outputCache = outputCache;
+    }
+
+    boolean get(BooleanSupplier computeOutput) {
+        long epoch = outputCache.getEpoch();
+        long current = state;
+        if (current >> 1 == epoch) {
+            outputCache.recordHit();
+            return (current & 1) != 0;
+        }
+        outputCache.recordMiss();
+        boolean output = computeOutput.getAsBoolean();
+        state = epoch << 1 | (output ? 1 : 0);
+        return output;
+    }
+}
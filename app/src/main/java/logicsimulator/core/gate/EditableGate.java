@@ -0,0 +1,17 @@
+package logicsimulator.core.gate;
+
+import logicsimulator.core.Point;
+
+import java.util.List;
+
+// Gatter, das direkt verändert wird (ohne ein neues Gatter zu erzeugen). Nur die Schaltung selbst arbeitet mit diesem
+// Typ, da sie bei jeder Änderung auch ihre Verbindungen, die topologische Reihenfolge usw. anpassen muss. Nach außen
+// gibt sie nur die unveränderliche Ansicht aus getReadOnlyView() heraus.
+public interface EditableGate extends Gate {
+    default void toggleOutput() { throw new UnsupportedOperationException(); }
+    default void addInput(Point pos) { throw new UnsupportedOperationException(); }
+    default void addInputs(List<Point> positions) { positions.forEach(this::addInput); }
+    default void removeInput(Point pos) { throw new UnsupportedOperationException(); }
+    // Liefert bei jedem Aufruf dieselbe Ansicht
+    Gate getReadOnlyView();
+}
@@ -1,27 +1,18 @@
 package logicsimulator.core.gate;
 
 import logicsimulator.core.LogicCircuit;
-import logicsimulator.core.Point;
+import logicsimulator.core.OutputCache;
 
 public class ExclusiveOrGate extends MultipleInputGate {
-    public ExclusiveOrGate(LogicCircuit circuit) {
-        super(circuit, "XOR");
-    }
-
-    protected ExclusiveOrGate(ExclusiveOrGate oldGate, Point newPos) {
-        super(oldGate, newPos);
-    }
-
-    @Override
-    public Gate addInput(Point pos) {
-        return new ExclusiveOrGate(this, pos);
+    public ExclusiveOrGate(LogicCircuit circuit, OutputCache outputCache) {
+        super(circuit, outputCache, getSymbol(GateType.EXCLUSIVE_OR));
     }
 
     public GateType getType() {
         return GateType.EXCLUSIVE_OR;
     }
 
-    public boolean getOutput() {
+    protected boolean computeOutput() {
         return getInputs().stream().map(circuit::getGateAt).filter(Gate::getOutput).count() == 1;
     }
 }
\ No newline at end of file
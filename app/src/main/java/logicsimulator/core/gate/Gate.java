@@ -5,11 +5,11 @@ import logicsimulator.core.Point;
 import java.util.List;
 import java.util.Optional;
 
+// Nur lesender Zugriff, verändert werden die Gatter ausschließlich von der Schaltung (siehe EditableGate)
 public interface Gate {
     GateType getType();
-    default Gate toggleOutput() { throw new UnsupportedOperationException(); }
     boolean getOutput();
-    default Gate addInput(Point pos) { throw new UnsupportedOperationException(); }
+    // Unveränderliche Momentaufnahme: spätere Änderungen am Gatter wirken sich nicht auf die gelieferte Liste aus
     List<Point> getInputs();
     default Optional<String> getName() { return Optional.empty(); }
     String getBooleanFunction();
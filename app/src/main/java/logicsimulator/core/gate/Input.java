@@ -5,17 +5,13 @@ import logicsimulator.core.Point;
 import java.util.List;
 import java.util.Optional;
 
-public class Input implements Gate {
-    private final boolean output;
+public class Input implements EditableGate {
+    private boolean output;
     private final String inputName;
-
-    private Input(String inputName, boolean output) {
-        this.inputName = inputName;
-        this.output = output;
-    }
+    private final Gate readOnlyView = new ReadOnlyGate(this);
 
     public Input(String inputName) {
-        this(inputName, false);
+        this.inputName = inputName;
     }
 
     public GateType getType() {
@@ -27,8 +23,8 @@ public class Input implements Gate {
     }
 
     @Override
-    public Gate toggleOutput() {
-        return new Input(inputName, !output);
+    public void toggleOutput() {
+        output = !output;
     }
 
     public List<Point> getInputs() {
@@ -44,6 +40,10 @@ public class Input implements Gate {
         return inputName;
     }
 
+    public Gate getReadOnlyView() {
+        return readOnlyView;
+    }
+
     @Override
     public String toString() {
         return "%s [Output: %b]".formatted(getBooleanFunction(), getOutput());
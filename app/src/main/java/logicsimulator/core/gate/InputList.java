@@ -0,0 +1,34 @@
+package logicsimulator.core.gate;
+
+import logicsimulator.core.Point;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+// Unveränderliche Liste der ersten "size" Positionen aus einem Feld gepackter Positionen (x in den oberen, y in den
+// unteren 32 Bit). Die Einträge des Felds bis "size" dürfen danach nicht mehr verändert werden.
+final class InputList extends AbstractList<Point> implements RandomAccess {
+    private final long[] positions;
+    private final int size;
+
+    InputList(long[] positions, int size) {
+        this.positions = positions;
+        this.size = size;
+    }
+
+    static long pack(Point pos) {
+        return (long) pos.x() << 32 | Integer.toUnsignedLong(pos.y());
+    }
+
+    @Override
+    public Point get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        long packedPos = positions[index];
+        return new Point((int) (packedPos >> 32), (int) packedPos);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
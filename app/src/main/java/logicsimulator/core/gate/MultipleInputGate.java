@@ -1,39 +1,95 @@
 package logicsimulator.core.gate;
 
 import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.OutputCache;
 import logicsimulator.core.Point;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public abstract class MultipleInputGate implements Gate {
-    private final List<Point> inputPositions = new ArrayList<>();
+// Die Eingänge werden als gepackte Positionen in einem Feld gespeichert, das beim Hinzufügen nur bei Bedarf vergrößert
+// wird. getInputs() liefert eine Ansicht auf das Feld bis zur aktuellen Anzahl der Eingänge: Spätere Eingänge werden
+// dahinter angehängt, beim Entfernen wird ein neues Feld angelegt, die Ansicht bleibt also unverändert.
+public abstract class MultipleInputGate implements EditableGate {
+    private long[] inputPositions = new long[2];
+    private int inputCount;
     protected final LogicCircuit circuit;
     private final String symbol;
+    private final CachedOutput cachedOutput;
+    private final Gate readOnlyView = new ReadOnlyGate(this);
 
-    protected MultipleInputGate(LogicCircuit circuit, String symbol) {
+    protected MultipleInputGate(LogicCircuit circuit, OutputCache outputCache, String symbol) {
         this.circuit = circuit;
+        cachedOutput = new CachedOutput(outputCache);
         this.symbol = symbol;
     }
 
-    protected MultipleInputGate(MultipleInputGate oldGate, Point newPos) {
-        this(oldGate.circuit, oldGate.symbol);
-        inputPositions.addAll(oldGate.inputPositions);
-        inputPositions.add(newPos);
+    @Override
+    public void addInput(Point pos) {
+        ensureCapacity(inputCount + 1);
+        inputPositions[inputCount++] = InputList.pack(pos);
+    }
+
+    @Override
+    public void addInputs(List<Point> positions) {
+        ensureCapacity(inputCount + positions.size());
+        for (Point pos : positions) inputPositions[inputCount++] = InputList.pack(pos);
+    }
+
+    // Entfernt alle Verbindungen zum Gatter an der Position "pos"
+    @Override
+    public void removeInput(Point pos) {
+        long packedPos = InputList.pack(pos);
+        long[] remaining = new long[inputPositions.length];
+        int remainingCount = 0;
+        for (int i = 0; i < inputCount; i++) {
+            if (inputPositions[i] != packedPos) remaining[remainingCount++] = inputPositions[i];
+        }
+        inputPositions = remaining;
+        inputCount = remainingCount;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > inputPositions.length) inputPositions = Arrays.copyOf(inputPositions, Math.max(capacity, 2 * inputPositions.length));
     }
 
+    // Der Wert wird pro Epoche des Zwischenspeichers nur einmal berechnet, auch wenn das Gatter mehrere andere
+    // Gatter ansteuert
+    public boolean getOutput() {
+        return cachedOutput.get(this::computeOutput);
+    }
+
+    protected abstract boolean computeOutput();
+
     public List<Point> getInputs() {
-        inputPositions.removeIf(pos -> circuit.getGateAt(pos) == null); // Ungültige Eingänge entfernen
-        return List.copyOf(inputPositions);
+        return new InputList(inputPositions, inputCount);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Symbol der Verknüpfung (auch ohne Zugriff auf das Gatter selbst, z. B. über die Ansicht aus getReadOnlyView())
+    public static String getSymbol(GateType type) {
+        return switch (type) {
+            case AND -> "^";
+            case OR -> "v";
+            case EXCLUSIVE_OR -> "XOR";
+            default -> throw new IllegalArgumentException("gate has only one input");
+        };
     }
 
     public String getBooleanFunction() {
-        return inputPositions.stream().map(circuit::getGateAt)
+        return getInputs().stream().map(circuit::getGateAt)
                 .map(gate -> gate.getType() != GateType.INPUT ? "(" + gate.getBooleanFunction() + ")" : gate.getBooleanFunction())
                 .collect(Collectors.joining(" " + symbol + " "));
     }
 
+    public Gate getReadOnlyView() {
+        return readOnlyView;
+    }
+
     @Override
     public String toString() {
         return "%s [Output: %b] [Inputs: %s]".formatted(getBooleanFunction(), getOutput(), getInputs());
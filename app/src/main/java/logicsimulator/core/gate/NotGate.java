@@ -1,27 +1,18 @@
 package logicsimulator.core.gate;
 
 import logicsimulator.core.LogicCircuit;
-import logicsimulator.core.Point;
+import logicsimulator.core.OutputCache;
 
 public class NotGate extends SingleInputGate {
-    public NotGate(LogicCircuit circuit) {
-        super(circuit);
-    }
-
-    protected NotGate(NotGate oldGate, Point newPos) {
-        super(oldGate, newPos);
-    }
-
-    @Override
-    public Gate addInput(Point pos) {
-        return new NotGate(this, pos);
+    public NotGate(LogicCircuit circuit, OutputCache outputCache) {
+        super(circuit, outputCache);
     }
 
     public GateType getType() {
         return GateType.NOT;
     }
 
-    public boolean getOutput() {
+    protected boolean computeOutput() {
         if (getInputs().isEmpty()) return true;
         return !circuit.getGateAt(getInputs().get(0)).getOutput();
     }
@@ -1,27 +1,18 @@
 package logicsimulator.core.gate;
 
 import logicsimulator.core.LogicCircuit;
-import logicsimulator.core.Point;
+import logicsimulator.core.OutputCache;
 
 public class OrGate extends MultipleInputGate {
-    public OrGate(LogicCircuit circuit) {
-        super(circuit, "v");
-    }
-
-    protected OrGate(OrGate oldGate, Point newPos) {
-        super(oldGate, newPos);
-    }
-
-    @Override
-    public Gate addInput(Point pos) {
-        return new OrGate(this, pos);
+    public OrGate(LogicCircuit circuit, OutputCache outputCache) {
+        super(circuit, outputCache, getSymbol(GateType.OR));
     }
 
     public GateType getType() {
         return GateType.OR;
     }
 
-    public boolean getOutput() {
+    protected boolean computeOutput() {
         return getInputs().stream().map(circuit::getGateAt).anyMatch(Gate::getOutput);
     }
 }
@@ -1,33 +1,23 @@
 package logicsimulator.core.gate;
 
 import logicsimulator.core.LogicCircuit;
-import logicsimulator.core.Point;
+import logicsimulator.core.OutputCache;
 
 import java.util.Optional;
 
 public class Output extends SingleInputGate {
     private final String outputName;
 
-    public Output(LogicCircuit circuit, String outputName) {
-        super(circuit);
+    public Output(LogicCircuit circuit, OutputCache outputCache, String outputName) {
+        super(circuit, outputCache);
         this.outputName = outputName;
     }
 
-    protected Output(Output oldGate, Point newPos) {
-        super(oldGate, newPos);
-        outputName = oldGate.outputName;
-    }
-
-    @Override
-    public Gate addInput(Point pos) {
-        return new Output(this, pos);
-    }
-
     public GateType getType() {
         return GateType.OUTPUT;
     }
 
-    public boolean getOutput() {
+    protected boolean computeOutput() {
         if (getInputs().isEmpty()) return false;
         return circuit.getGateAt(getInputs().get(0)).getOutput();
     }
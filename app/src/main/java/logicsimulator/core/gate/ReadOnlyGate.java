@@ -0,0 +1,41 @@
+package logicsimulator.core.gate;
+
+import logicsimulator.core.Point;
+
+import java.util.List;
+import java.util.Optional;
+
+// Ansicht auf ein Gatter, über die es nicht verändert werden kann (Änderungen am Gatter sind aber sichtbar)
+final class ReadOnlyGate implements Gate {
+    private final Gate gate;
+
+    ReadOnlyGate(Gate gate) {
+        this.gate = gate;
+    }
+
+    public GateType getType() {
+        return gate.getType();
+    }
+
+    public boolean getOutput() {
+        return gate.getOutput();
+    }
+
+    public List<Point> getInputs() {
+        return gate.getInputs();
+    }
+
+    @Override
+    public Optional<String> getName() {
+        return gate.getName();
+    }
+
+    public String getBooleanFunction() {
+        return gate.getBooleanFunction();
+    }
+
+    @Override
+    public String toString() {
+        return gate.toString();
+    }
+}
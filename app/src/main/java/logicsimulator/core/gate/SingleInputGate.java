@@ -1,28 +1,48 @@
 package logicsimulator.core.gate;
 
 import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.OutputCache;
 import logicsimulator.core.Point;
 
 import java.util.List;
 
-public abstract class SingleInputGate implements Gate {
+public abstract class SingleInputGate implements EditableGate {
     private Point input;
     protected final LogicCircuit circuit;
+    private final CachedOutput cachedOutput;
+    private final Gate readOnlyView = new ReadOnlyGate(this);
 
-    protected SingleInputGate(LogicCircuit circuit) {
+    protected SingleInputGate(LogicCircuit circuit, OutputCache outputCache) {
         this.circuit = circuit;
+        cachedOutput = new CachedOutput(outputCache);
     }
 
-    protected SingleInputGate(SingleInputGate oldGate, Point newPos) {
-        this(oldGate.circuit);
-        this.input = newPos;
+    // Die bisherige Verbindung wird ersetzt
+    @Override
+    public void addInput(Point pos) {
+        input = pos;
     }
 
+    @Override
+    public void removeInput(Point pos) {
+        if (pos.equals(input)) input = null;
+    }
+
+    // Zwischengespeicherten Wert verwenden, falls er in der aktuellen Epoche berechnet wurde
+    public boolean getOutput() {
+        return cachedOutput.get(this::computeOutput);
+    }
+
+    protected abstract boolean computeOutput();
+
     public List<Point> getInputs() {
-        if (input != null && circuit.getGateAt(input) == null) input = null; // Ungültigen Eingang entfernen
         return input == null ? List.of() : List.of(input);
     }
 
+    public Gate getReadOnlyView() {
+        return readOnlyView;
+    }
+
     @Override
     public String toString() {
         return "%s [Output: %b] [Input: %s]".formatted(getBooleanFunction(), getOutput(), getInputs());
@@ -0,0 +1,230 @@
+package logicsimulator.generator;
+
+import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.GateType;
+
+import java.util.*;
+
+// Erzeugt große Schaltungen für Tests, Benchmarks und die Kommandozeile. Die Gatter werden in topologischer Reihenfolge
+// erzeugt (jedes Gatter nach seinen Eingängen), daher muss beim Verbinden nie die Reihenfolge angepasst werden.
+// Jedes Gatter steht eine Spalte rechts von seinem am weitesten rechts liegenden Eingang, die Eingänge in Spalte 0.
+//
+// Namen: Summanden bzw. Faktoren a0, a1, ... und b0, b1, ... (Bit 0 ist das niederwertigste Bit), Summen s0, s1, ...,
+// Produkte p0, p1, ..., sonstige Eingänge x0, x1, ... und Ausgänge f (bei zufälligen Schaltungen f1, f2, ...).
+public final class CircuitGenerator {
+    private final LogicCircuitSimulation circuit = new LogicCircuitSimulation();
+    private final Map<Integer, Integer> rowCounts = new HashMap<>();
+
+    private record Sum(Point sum, Point carry) {}
+
+    private CircuitGenerator() {}
+
+    // Addierer aus Volladdierern, der Übertrag wird von Bit zu Bit weitergegeben (Ausgänge s0 bis s"bits")
+    public static LogicCircuitSimulation rippleCarryAdder(int bits) {
+        requirePositive(bits, "bits");
+        CircuitGenerator generator = new CircuitGenerator();
+        List<Point> a = generator.inputs("a", bits), b = generator.inputs("b", bits);
+        Point carry = null;
+        for (int i = 0; i < bits; i++) {
+            Sum sum = carry == null ? generator.halfAdder(a.get(i), b.get(i)) : generator.fullAdder(a.get(i), b.get(i), carry);
+            generator.output("s" + i, sum.sum());
+            carry = sum.carry();
+        }
+        generator.output("s" + bits, carry);
+        return generator.circuit;
+    }
+
+    // Addierer mit Übertragsvorausberechnung in Blöcken zu je 4 Bit: Innerhalb eines Blocks wird jeder Übertrag direkt
+    // aus den Generate- (a ^ b) und Propagate-Signalen (a XOR b) und dem Übertrag in den Block berechnet
+    public static LogicCircuitSimulation carryLookaheadAdder(int bits) {
+        requirePositive(bits, "bits");
+        final int blockSize = 4;
+        CircuitGenerator generator = new CircuitGenerator();
+        List<Point> a = generator.inputs("a", bits), b = generator.inputs("b", bits);
+        List<Point> generate = new ArrayList<>(), propagate = new ArrayList<>();
+        for (int i = 0; i < bits; i++) {
+            generate.add(generator.gate(GateType.AND, a.get(i), b.get(i)));
+            propagate.add(generator.gate(GateType.EXCLUSIVE_OR, a.get(i), b.get(i)));
+        }
+
+        Point carry = null; // Kein Übertrag in das erste Bit
+        for (int start = 0; start < bits; start += blockSize) {
+            int end = Math.min(start + blockSize, bits);
+            Point blockCarry = carry;
+            List<Point> carries = new ArrayList<>();
+            carries.add(blockCarry);
+            for (int i = start; i < end; i++) {
+                // c(i+1) = g(i) v p(i) ^ g(i-1) v ... v p(i) ^ ... ^ p(start) ^ c(start)
+                List<Point> terms = new ArrayList<>(List.of(generate.get(i)));
+                for (int j = i - 1; j >= start - 1; j--) {
+                    if (j < start && blockCarry == null) break;
+                    List<Point> factors = new ArrayList<>(propagate.subList(j + 1, i + 1));
+                    factors.add(j < start ? blockCarry : generate.get(j));
+                    terms.add(generator.gate(GateType.AND, factors.toArray(Point[]::new)));
+                }
+                carries.add(terms.size() == 1 ? terms.get(0) : generator.gate(GateType.OR, terms.toArray(Point[]::new)));
+            }
+            for (int i = start; i < end; i++) {
+                Point carryIn = carries.get(i - start);
+                generator.output("s" + i, carryIn == null ? propagate.get(i) : generator.gate(GateType.EXCLUSIVE_OR, propagate.get(i), carryIn));
+            }
+            carry = carries.get(carries.size() - 1);
+        }
+        generator.output("s" + bits, carry);
+        return generator.circuit;
+    }
+
+    // Multiplizierer aus Teilprodukten (a(j) ^ b(i)), die Zeile für Zeile mit Ripple-Carry-Addierern aufsummiert werden
+    // (Ausgänge p0 bis p"2 * bits - 1")
+    public static LogicCircuitSimulation arrayMultiplier(int bits) {
+        requirePositive(bits, "bits");
+        CircuitGenerator generator = new CircuitGenerator();
+        List<Point> a = generator.inputs("a", bits), b = generator.inputs("b", bits);
+        List<Point> product = new ArrayList<>(); // Bit "k" hat die Wertigkeit 2^k
+        for (int j = 0; j < bits; j++) product.add(generator.gate(GateType.AND, a.get(j), b.get(0)));
+        for (int i = 1; i < bits; i++) {
+            Point carry = null;
+            for (int j = 0; j < bits; j++) {
+                Point partialProduct = generator.gate(GateType.AND, a.get(j), b.get(i));
+                int weight = i + j;
+                Point current = weight < product.size() ? product.get(weight) : null;
+                Sum sum;
+                if (current == null && carry == null) sum = new Sum(partialProduct, null);
+                else if (current == null) sum = generator.halfAdder(partialProduct, carry);
+                else if (carry == null) sum = generator.halfAdder(current, partialProduct);
+                else sum = generator.fullAdder(current, partialProduct, carry);
+                if (weight < product.size()) product.set(weight, sum.sum());
+                else product.add(sum.sum());
+                carry = sum.carry();
+            }
+            product.add(carry);
+        }
+        for (int k = 0; k < product.size(); k++) generator.output("p" + k, product.get(k));
+        return generator.circuit;
+    }
+
+    // Parität der Eingänge x0 bis x"inputs - 1" als Baum aus XOR-Gattern mit zwei Eingängen
+    public static LogicCircuitSimulation parityTree(int inputs) {
+        requirePositive(inputs, "inputs");
+        CircuitGenerator generator = new CircuitGenerator();
+        List<Point> level = generator.inputs("x", inputs);
+        while (level.size() > 1) {
+            List<Point> next = new ArrayList<>();
+            for (int i = 0; i + 1 < level.size(); i += 2) next.add(generator.gate(GateType.EXCLUSIVE_OR, level.get(i), level.get(i + 1)));
+            if (level.size() % 2 == 1) next.add(level.get(level.size() - 1));
+            level = next;
+        }
+        generator.output("f", level.get(0));
+        return generator.circuit;
+    }
+
+    // Ein einzelnes AND- oder OR-Gatter mit "inputs" Eingängen
+    public static LogicCircuitSimulation wideGate(GateType type, int inputs) {
+        if (type != GateType.AND && type != GateType.OR) throw new IllegalArgumentException("type must be AND or OR");
+        requirePositive(inputs, "inputs");
+        CircuitGenerator generator = new CircuitGenerator();
+        generator.output("f", generator.gate(type, generator.inputs("x", inputs).toArray(Point[]::new)));
+        return generator.circuit;
+    }
+
+    // Kette aus "length" Gattern (abwechselnd AND und OR), die jeweils das vorherige Gatter und einen der beiden
+    // Eingänge x0 und x1 verwenden. Die Tiefe der Schaltung entspricht also ihrer Länge.
+    public static LogicCircuitSimulation chain(int length) {
+        requirePositive(length, "length");
+        CircuitGenerator generator = new CircuitGenerator();
+        List<Point> inputs = generator.inputs("x", 2);
+        Point previous = inputs.get(0);
+        for (int i = 0; i < length; i++) {
+            previous = generator.gate(i % 2 == 0 ? GateType.AND : GateType.OR, previous, inputs.get(1 - i % 2));
+        }
+        generator.output("f", previous);
+        return generator.circuit;
+    }
+
+    // Zufällige Schaltung aus "gates" AND-, OR-, XOR- und NOT-Gattern über "inputs" Eingängen. Jedes Gatter hat höchstens
+    // "maxFanIn" verschiedene Eingänge und steuert höchstens "maxFanOut" andere Gatter an (die Eingänge der Schaltung
+    // dürfen beliebig oft verwendet werden). Gatter, die kein anderes Gatter ansteuern, erhalten einen Ausgang.
+    // Mit demselben Startwert "seed" entsteht immer dieselbe Schaltung.
+    public static LogicCircuitSimulation randomDag(int gates, int inputs, int maxFanIn, int maxFanOut, long seed) {
+        requirePositive(gates, "gates");
+        requirePositive(inputs, "inputs");
+        requirePositive(maxFanIn, "maxFanIn");
+        requirePositive(maxFanOut, "maxFanOut");
+        CircuitGenerator generator = new CircuitGenerator();
+        Random random = new Random(seed);
+        List<Point> inputPositions = generator.inputs("x", inputs);
+
+        // Gatter, die noch weitere Gatter ansteuern dürfen (Entfernen durch Tauschen mit dem letzten Element)
+        List<Point> available = new ArrayList<>(inputPositions);
+        Map<Point, Integer> fanOuts = new HashMap<>();
+        List<Point> created = new ArrayList<>(gates);
+        GateType[] types = {GateType.AND, GateType.OR, GateType.EXCLUSIVE_OR, GateType.NOT};
+        for (int i = 0; i < gates; i++) {
+            GateType type = maxFanIn == 1 ? GateType.NOT : types[random.nextInt(types.length)];
+            int fanIn = type == GateType.NOT ? 1 : 2 + random.nextInt(maxFanIn - 1);
+            Set<Point> gateInputs = new LinkedHashSet<>();
+            for (int attempt = 0; gateInputs.size() < fanIn && attempt < 2 * fanIn; attempt++) {
+                int index = random.nextInt(available.size());
+                Point input = available.get(index);
+                if (!gateInputs.add(input) || inputPositions.size() > index) continue;
+                if (fanOuts.merge(input, 1, Integer::sum) == maxFanOut) {
+                    available.set(index, available.get(available.size() - 1));
+                    available.remove(available.size() - 1);
+                }
+            }
+            Point pos = generator.gate(type, gateInputs.toArray(Point[]::new));
+            created.add(pos);
+            available.add(pos);
+        }
+        for (Point pos : created) {
+            if (!fanOuts.containsKey(pos)) generator.output(null, pos);
+        }
+        return generator.circuit;
+    }
+
+    private static void requirePositive(int value, String name) {
+        if (value < 1) throw new IllegalArgumentException(name + " must be positive");
+    }
+
+    private Sum halfAdder(Point x, Point y) {
+        return new Sum(gate(GateType.EXCLUSIVE_OR, x, y), gate(GateType.AND, x, y));
+    }
+
+    private Sum fullAdder(Point x, Point y, Point carry) {
+        Point halfSum = gate(GateType.EXCLUSIVE_OR, x, y);
+        Point sum = gate(GateType.EXCLUSIVE_OR, halfSum, carry);
+        Point carryOut = gate(GateType.OR, gate(GateType.AND, x, y), gate(GateType.AND, halfSum, carry));
+        return new Sum(sum, carryOut);
+    }
+
+    private List<Point> inputs(String prefix, int count) {
+        List<Point> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Point pos = place(0);
+            circuit.addGate(pos, GateType.INPUT, prefix + i);
+            positions.add(pos);
+        }
+        return positions;
+    }
+
+    private Point gate(GateType type, Point... inputs) {
+        int column = 0;
+        for (Point input : inputs) column = Math.max(column, input.x());
+        Point pos = place(column + 1);
+        circuit.addGate(pos, type);
+        circuit.connect(Arrays.asList(inputs), pos);
+        return pos;
+    }
+
+    // "name" ist null: Name automatisch erzeugen
+    private void output(String name, Point input) {
+        Point pos = place(input.x() + 1);
+        circuit.addGate(pos, GateType.OUTPUT, name);
+        circuit.connect(input, pos);
+    }
+
+    private Point place(int column) {
+        return new Point(column, rowCounts.merge(column, 1, Integer::sum) - 1);
+    }
+}
@@ -0,0 +1,67 @@
+package logicsimulator.io;
+
+import logicsimulator.core.LogicCircuitSimulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Import von Schaltungen im ISCAS-Format (.bench), z. B.:
+//   INPUT(G1)
+//   OUTPUT(G3)
+//   G3 = NAND(G1, G2)
+// Unterstützt werden AND, OR, NAND, NOR, XOR, XNOR, NOT und BUFF, Flip-Flops (DFF) dagegen nicht.
+public final class BenchFormat {
+    private static final Pattern PORT = Pattern.compile("(INPUT|OUTPUT)\\s*\\(\\s*([^\\s()]+)\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern GATE = Pattern.compile("([^\\s=()]+)\\s*=\\s*(\\w+)\\s*\\(([^()]*)\\)");
+
+    private BenchFormat() {}
+
+    public static LogicCircuitSimulation read(Reader reader) throws IOException {
+        CircuitImporter importer = new CircuitImporter();
+        BufferedReader lines = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            int commentStart = line.indexOf('#');
+            if (commentStart >= 0) line = line.substring(0, commentStart);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            Matcher port = PORT.matcher(line);
+            Matcher gate = GATE.matcher(line);
+            if (port.matches()) {
+                if (port.group(1).equalsIgnoreCase("INPUT")) importer.addInput(port.group(2), lineNumber);
+                else importer.addOutput(port.group(2));
+            } else if (gate.matches()) {
+                List<String> operands = gate.group(3).isBlank() ? List.of() : Arrays.stream(gate.group(3).split(",")).map(String::trim).toList();
+                if (operands.stream().anyMatch(String::isEmpty)) throw new IOException("line %d: empty gate input".formatted(lineNumber));
+                importer.define(gate.group(1), parseKind(gate.group(2), lineNumber), operands, lineNumber);
+            } else {
+                throw new IOException("line %d: syntax error".formatted(lineNumber));
+            }
+        }
+        return importer.build();
+    }
+
+    private static CircuitImporter.Kind parseKind(String token, int lineNumber) throws IOException {
+        return switch (token.toUpperCase(Locale.ROOT)) {
+            case "AND" -> CircuitImporter.Kind.AND;
+            case "OR" -> CircuitImporter.Kind.OR;
+            case "NAND" -> CircuitImporter.Kind.NAND;
+            case "NOR" -> CircuitImporter.Kind.NOR;
+            case "XOR" -> CircuitImporter.Kind.XOR;
+            case "XNOR" -> CircuitImporter.Kind.XNOR;
+            case "NOT", "INV" -> CircuitImporter.Kind.NOT;
+            case "BUFF", "BUF" -> CircuitImporter.Kind.BUFFER;
+            case "DFF" -> throw new IOException("line %d: sequential elements are not supported".formatted(lineNumber));
+            default -> throw new IOException("line %d: unknown gate type '%s'".formatted(lineNumber, token));
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package logicsimulator.io;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Kompaktes Binärformat: Nach der Kennung "LCS" und der Versionsnummer folgen die Anzahl der Gatter und die Gatter
+// selbst in topologischer Reihenfolge. Jedes Gatter besteht aus Typ, Position (ZigZag-kodiert), Name (Länge und UTF-8,
+// nur bei Ein- und Ausgängen), Wert (nur bei Eingängen) und der Liste seiner Eingänge als Nummern bereits gelesener
+// Gatter. Alle Zahlen werden als Varint gespeichert (7 Bit pro Byte, das höchste Bit kennzeichnet weitere Bytes).
+// Geladen wird über eine in den Speicher abgebildete Datei (Memory-Mapped I/O).
+public final class BinaryCircuitFormat {
+    private static final byte[] MAGIC = {'L', 'C', 'S'};
+    private static final int VERSION = 1;
+
+    private BinaryCircuitFormat() {}
+
+    public static void write(LogicCircuit circuit, Path path) throws IOException {
+        List<Point> order = CircuitFiles.getTopologicalOrder(circuit);
+        Map<Point, Integer> ids = new HashMap<>(order.size() * 2);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            out.write(MAGIC);
+            writeVarint(out, VERSION);
+            writeVarint(out, order.size());
+            for (Point pos : order) {
+                Gate gate = circuit.getGateAt(pos);
+                writeVarint(out, gate.getType().ordinal());
+                writeVarint(out, zigZag(pos.x()));
+                writeVarint(out, zigZag(pos.y()));
+                if (gate.getName().isPresent()) {
+                    byte[] name = gate.getName().get().getBytes(StandardCharsets.UTF_8);
+                    writeVarint(out, name.length);
+                    out.write(name);
+                }
+                if (gate.getType() == GateType.INPUT) out.write(gate.getOutput() ? 1 : 0);
+                writeVarint(out, gate.getInputs().size());
+                for (Point input : gate.getInputs()) writeVarint(out, ids.get(input));
+                ids.put(pos, ids.size());
+            }
+        }
+    }
+
+    public static LogicCircuitSimulation read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("unexpected end of file", e);
+        }
+    }
+
+    private static LogicCircuitSimulation read(ByteBuffer in) throws IOException {
+        for (byte b : MAGIC) {
+            if (in.get() != b) throw new IOException("not a circuit file");
+        }
+        if (readVarint(in) != VERSION) throw new IOException("unsupported file version");
+
+        int gateCount = readLength(in, "gate count");
+        GateType[] types = GateType.values();
+        Point[] positions = new Point[gateCount];
+        LogicCircuitSimulation circuit = new LogicCircuitSimulation();
+        for (int id = 0; id < gateCount; id++) {
+            int typeIndex = readVarint(in);
+            if (typeIndex < 0 || typeIndex >= types.length) throw new IOException("invalid gate type");
+            GateType type = types[typeIndex];
+            Point pos = new Point(unZigZag(readVarint(in)), unZigZag(readVarint(in)));
+            String name = null;
+            if (type == GateType.INPUT || type == GateType.OUTPUT) {
+                byte[] bytes = new byte[readLength(in, "name length")];
+                in.get(bytes);
+                name = new String(bytes, StandardCharsets.UTF_8);
+            }
+            boolean value = type == GateType.INPUT && in.get() != 0;
+
+            try {
+                if (!circuit.addGate(pos, type, name)) throw new IOException("duplicate position " + pos);
+                if (value) circuit.interactWith(pos);
+                int inputCount = readLength(in, "input count");
+                for (int i = 0; i < inputCount; i++) {
+                    int input = readVarint(in);
+                    // Die Eingänge stehen immer vor dem Gatter in der Datei
+                    if (input < 0 || input >= id) throw new IOException("invalid gate id");
+                    if (!circuit.connect(positions[input], pos)) throw new IOException("invalid connection");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            positions[id] = pos;
+        }
+        return circuit;
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("invalid varint");
+    }
+
+    // Jedes Gatter, jeder Eingang und jedes Zeichen belegt mindestens ein Byte, größere Werte können also nur aus einer
+    // beschädigten Datei stammen (und würden sonst zu riesigen oder negativen Feldgrößen führen)
+    private static int readLength(ByteBuffer in, String what) throws IOException {
+        int length = readVarint(in);
+        if (length < 0 || length > in.remaining()) throw new IOException("invalid " + what);
+        return length;
+    }
+
+    // Kleine negative Zahlen sollen ebenfalls wenige Bytes belegen: 0, -1, 1, -2, ... → 0, 1, 2, 3, ...
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,92 @@
+package logicsimulator.io;
+
+import logicsimulator.core.LogicCircuitSimulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Import von kombinatorischen Schaltungen im BLIF-Format (nur das erste Modell). Jede Tabelle (".names") wird als
+// disjunktive Form aus AND-, OR- und NOT-Gattern aufgebaut. Zeilen, die mit "\" enden, werden mit der nächsten Zeile
+// zusammengefügt. Latches und Teilschaltungen (".latch", ".subckt") werden nicht unterstützt.
+public final class BlifFormat {
+    private BlifFormat() {}
+
+    public static LogicCircuitSimulation read(Reader reader) throws IOException {
+        CircuitImporter importer = new CircuitImporter();
+        BufferedReader lines = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+
+        // Die aktuelle Tabelle wird erst gespeichert, wenn alle ihre Zeilen gelesen wurden
+        List<String> signals = null, cubes = new ArrayList<>();
+        Boolean offSet = null;
+        int namesLine = 0;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            int startLine = lineNumber;
+            while (line.endsWith("\\")) {
+                String next = lines.readLine();
+                if (next == null) break;
+                lineNumber++;
+                line = line.substring(0, line.length() - 1) + " " + next;
+            }
+            int commentStart = line.indexOf('#');
+            if (commentStart >= 0) line = line.substring(0, commentStart);
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens[0].isEmpty()) continue;
+
+            if (!tokens[0].startsWith(".")) {
+                // Zeile einer Tabelle: Eingangsspalten und Wert (ohne Eingänge nur der Wert)
+                if (signals == null) throw new IOException("line %d: unexpected cover".formatted(startLine));
+                int inputCount = signals.size() - 1;
+                if (tokens.length != (inputCount == 0 ? 1 : 2)) throw new IOException("line %d: invalid cover".formatted(startLine));
+                String value = tokens[tokens.length - 1];
+                if (!value.equals("0") && !value.equals("1")) throw new IOException("line %d: invalid output value '%s'".formatted(startLine, value));
+                if (offSet != null && offSet != value.equals("0")) throw new IOException("line %d: mixed on-set and off-set".formatted(startLine));
+                offSet = value.equals("0");
+                cubes.add(inputCount == 0 ? "" : tokens[0]);
+                continue;
+            }
+
+            if (signals != null) {
+                defineNames(importer, signals, cubes, offSet, namesLine);
+                signals = null;
+            }
+            List<String> arguments = Arrays.asList(tokens).subList(1, tokens.length);
+            switch (tokens[0]) {
+                case ".model" -> {}
+                case ".inputs" -> {
+                    for (String name : arguments) importer.addInput(name, startLine);
+                }
+                case ".outputs" -> {
+                    for (String name : arguments) importer.addOutput(name);
+                }
+                case ".names" -> {
+                    if (arguments.isEmpty()) throw new IOException("line %d: signal name is missing".formatted(startLine));
+                    signals = arguments;
+                    cubes = new ArrayList<>();
+                    offSet = null;
+                    namesLine = startLine;
+                }
+                case ".end" -> {
+                    return importer.build();
+                }
+                case ".latch" -> throw new IOException("line %d: sequential elements are not supported".formatted(startLine));
+                default -> throw new IOException("line %d: unsupported command '%s'".formatted(startLine, tokens[0]));
+            }
+        }
+        if (signals != null) defineNames(importer, signals, cubes, offSet, namesLine);
+        return importer.build();
+    }
+
+    // Eine Tabelle ohne Zeilen ist immer falsch
+    private static void defineNames(CircuitImporter importer, List<String> signals, List<String> cubes, Boolean offSet, int lineNumber) throws IOException {
+        String output = signals.get(signals.size() - 1);
+        importer.define(output, CircuitImporter.Kind.COVER, signals.subList(0, signals.size() - 1), cubes, offSet != null && offSet, lineNumber);
+    }
+}
@@ -0,0 +1,76 @@
+package logicsimulator.io;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.core.Point;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Speichern und Laden von Schaltungen: Dateien mit der Endung ".lcs" verwenden das Binärformat, alle anderen das Textformat.
+// Netzlisten im ISCAS- (".bench") und BLIF-Format (".blif") können nur geladen werden.
+public final class CircuitFiles {
+    public static final String BINARY_EXTENSION = ".lcs", BENCH_EXTENSION = ".bench", BLIF_EXTENSION = ".blif";
+
+    private CircuitFiles() {}
+
+    public static void save(LogicCircuit circuit, Path path) throws IOException {
+        if (hasExtension(path, BENCH_EXTENSION) || hasExtension(path, BLIF_EXTENSION)) throw new IOException("netlist formats can only be imported");
+        if (hasExtension(path, BINARY_EXTENSION)) {
+            BinaryCircuitFormat.write(circuit, path);
+        } else {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                TextCircuitFormat.write(circuit, writer);
+            }
+        }
+    }
+
+    public static LogicCircuitSimulation load(Path path) throws IOException {
+        if (hasExtension(path, BINARY_EXTENSION)) return BinaryCircuitFormat.read(path);
+        try (Reader reader = Files.newBufferedReader(path)) {
+            if (hasExtension(path, BENCH_EXTENSION)) return BenchFormat.read(reader);
+            if (hasExtension(path, BLIF_EXTENSION)) return BlifFormat.read(reader);
+            return TextCircuitFormat.read(reader);
+        }
+    }
+
+    private static boolean hasExtension(Path path, String extension) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(extension);
+    }
+
+    // Alle Gatter so sortiert, dass jedes Gatter nach seinen Eingängen kommt. Beim Laden in dieser Reihenfolge stimmt
+    // die topologische Reihenfolge der Schaltung schon, sodass beim Verbinden keine Gatter umsortiert werden müssen.
+    static List<Point> getTopologicalOrder(LogicCircuit circuit) {
+        List<Point> positions = new ArrayList<>(circuit.getGatePositions());
+        // Für eine reproduzierbare Ausgabe werden die Gatter zeilenweise durchlaufen
+        // (ein einzelner Schlüssel aus Zeile und Spalte ist deutlich schneller als zwei verkettete Vergleiche)
+        positions.sort(Comparator.comparingLong(pos -> (long) pos.y() << 32 | Integer.toUnsignedLong(pos.x() ^ Integer.MIN_VALUE)));
+
+        List<Point> order = new ArrayList<>(positions.size());
+        Set<Point> visited = new HashSet<>();
+        Deque<Point> stack = new ArrayDeque<>();
+        Deque<Iterator<Point>> inputs = new ArrayDeque<>();
+        for (Point root : positions) {
+            if (!visited.add(root)) continue;
+            stack.push(root);
+            inputs.push(circuit.getGateAt(root).getInputs().iterator());
+            while (!stack.isEmpty()) {
+                if (inputs.peek().hasNext()) {
+                    Point input = inputs.peek().next();
+                    if (visited.add(input)) {
+                        stack.push(input);
+                        inputs.push(circuit.getGateAt(input).getInputs().iterator());
+                    }
+                } else {
+                    order.add(stack.pop());
+                    inputs.pop();
+                }
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,179 @@
+package logicsimulator.io;
+
+import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.GateType;
+
+import java.io.IOException;
+import java.util.*;
+
+// Gemeinsamer Teil der Importe von Netzlisten (.bench, BLIF): Die Signale werden beim zeilenweisen Lesen nur mit
+// Nummern gespeichert und erst am Ende in Gatter umgewandelt, da sie vor ihrer Definition verwendet werden dürfen.
+// Gatter, die es in der Simulation nicht gibt, werden aus den vorhandenen Gattern zusammengesetzt. Die Positionen
+// ergeben sich aus der Tiefe in der Schaltung: Jedes Gatter steht eine Spalte rechts von seinem am weitesten rechts
+// liegenden Eingang, innerhalb einer Spalte werden die Gatter untereinander angeordnet.
+final class CircuitImporter {
+    enum Kind { AND, OR, NAND, NOR, XOR, XNOR, NOT, BUFFER, COVER }
+
+    // Bei "COVER" (BLIF) enthält "cubes" die Eingangsspalten der Zeilen, "offSet" gibt an, ob die Zeilen die
+    // Belegungen beschreiben, bei denen das Signal falsch ist
+    private record Definition(Kind kind, int[] operands, List<String> cubes, boolean offSet, int lineNumber) {}
+
+    private final Map<String, Integer> signalIds = new HashMap<>();
+    private final List<String> signalNames = new ArrayList<>();
+    private final List<Definition> definitions = new ArrayList<>();
+    private final Set<Integer> inputs = new LinkedHashSet<>();
+    private final Set<Integer> outputs = new LinkedHashSet<>();
+
+    private LogicCircuitSimulation circuit;
+    private Point[] positions;
+    private final Map<Integer, Integer> rowCounts = new HashMap<>();
+    private final Map<Point, Point> negations = new HashMap<>();
+
+    private int getSignal(String name) {
+        return signalIds.computeIfAbsent(name, n -> {
+            signalNames.add(n);
+            definitions.add(null);
+            return signalNames.size() - 1;
+        });
+    }
+
+    void addInput(String name, int lineNumber) throws IOException {
+        int signal = getSignal(name);
+        if (definitions.get(signal) != null || !inputs.add(signal)) throw new IOException("line %d: signal '%s' is already defined".formatted(lineNumber, name));
+    }
+
+    void addOutput(String name) {
+        outputs.add(getSignal(name));
+    }
+
+    void define(String name, Kind kind, List<String> operands, int lineNumber) throws IOException {
+        define(name, kind, operands, List.of(), false, lineNumber);
+    }
+
+    void define(String name, Kind kind, List<String> operands, List<String> cubes, boolean offSet, int lineNumber) throws IOException {
+        int signal = getSignal(name);
+        if (definitions.get(signal) != null || inputs.contains(signal)) throw new IOException("line %d: signal '%s' is already defined".formatted(lineNumber, name));
+        int[] operandIds = operands.stream().mapToInt(this::getSignal).toArray();
+        definitions.set(signal, new Definition(kind, operandIds, List.copyOf(cubes), offSet, lineNumber));
+    }
+
+    // Erzeugt die Gatter in topologischer Reihenfolge, damit beim Verbinden keine Gatter umsortiert werden müssen.
+    // Signale, von denen kein Ausgang abhängt, werden nicht übernommen.
+    LogicCircuitSimulation build() throws IOException {
+        circuit = new LogicCircuitSimulation();
+        positions = new Point[signalNames.size()];
+        for (int signal : inputs) positions[signal] = place(GateType.INPUT, signalNames.get(signal), List.of());
+
+        int[] state = new int[signalNames.size()]; // 0: unbesucht, 1: auf dem Stapel, 2: fertig
+        for (int root : outputs) {
+            if (positions[root] != null) continue;
+            Deque<Integer> stack = new ArrayDeque<>(List.of(root));
+            while (!stack.isEmpty()) {
+                int signal = stack.peek();
+                Definition definition = definitions.get(signal);
+                if (positions[signal] != null) {
+                    stack.pop();
+                    continue;
+                }
+                if (definition == null) throw new IOException("signal '%s' is not defined".formatted(signalNames.get(signal)));
+                if (state[signal] == 0) {
+                    state[signal] = 1;
+                    for (int operand : definition.operands()) {
+                        if (state[operand] == 1) throw new IOException("line %d: signal '%s' depends on itself".formatted(definition.lineNumber(), signalNames.get(operand)));
+                        if (positions[operand] == null) stack.push(operand);
+                    }
+                } else {
+                    stack.pop();
+                    state[signal] = 2;
+                    positions[signal] = createSignal(definition);
+                }
+            }
+        }
+
+        // Alle Ausgänge stehen in einer gemeinsamen Spalte rechts von der Schaltung
+        int outputColumn = rowCounts.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+        int row = 0;
+        for (int signal : outputs) {
+            Point pos = new Point(outputColumn, row++);
+            circuit.addGate(pos, GateType.OUTPUT, signalNames.get(signal));
+            circuit.connect(positions[signal], pos);
+        }
+        return circuit;
+    }
+
+    private Point createSignal(Definition definition) throws IOException {
+        List<Point> operands = Arrays.stream(definition.operands()).mapToObj(operand -> positions[operand]).toList();
+        return switch (definition.kind()) {
+            case AND -> place(GateType.AND, null, operands);
+            case OR -> place(GateType.OR, null, operands);
+            case NAND -> negate(place(GateType.AND, null, operands));
+            case NOR -> negate(place(GateType.OR, null, operands));
+            case XOR -> parity(operands);
+            case XNOR -> negate(parity(operands));
+            case NOT -> negate(single(operands, definition));
+            case BUFFER -> single(operands, definition);
+            case COVER -> cover(definition, operands);
+        };
+    }
+
+    private static Point single(List<Point> operands, Definition definition) throws IOException {
+        if (operands.size() != 1) throw new IOException("line %d: gate needs exactly one input".formatted(definition.lineNumber()));
+        return operands.get(0);
+    }
+
+    // Ein XOR-Gatter der Simulation ist wahr, wenn genau ein Eingang wahr ist. Das stimmt nur bei zwei Eingängen mit
+    // der Parität überein, daher werden größere XOR-Gatter als Baum aus XOR-Gattern mit zwei Eingängen aufgebaut.
+    private Point parity(List<Point> operands) {
+        if (operands.isEmpty()) return place(GateType.AND, null, List.of());
+        List<Point> level = operands;
+        while (level.size() > 1) {
+            List<Point> next = new ArrayList<>();
+            for (int i = 0; i + 1 < level.size(); i += 2) next.add(place(GateType.EXCLUSIVE_OR, null, List.of(level.get(i), level.get(i + 1))));
+            if (level.size() % 2 == 1) next.add(level.get(level.size() - 1));
+            level = next;
+        }
+        return level.get(0);
+    }
+
+    // Disjunktive Form aus den Zeilen einer BLIF-Tabelle ("1" → Eingang, "0" → negierter Eingang, "-" → beliebig)
+    private Point cover(Definition definition, List<Point> operands) throws IOException {
+        List<Point> terms = new ArrayList<>();
+        for (String cube : definition.cubes()) {
+            if (cube.length() != operands.size()) throw new IOException("line %d: wrong number of inputs in cover".formatted(definition.lineNumber()));
+            List<Point> literals = new ArrayList<>();
+            for (int i = 0; i < cube.length(); i++) {
+                switch (cube.charAt(i)) {
+                    case '1' -> literals.add(operands.get(i));
+                    case '0' -> literals.add(negate(operands.get(i)));
+                    case '-' -> {}
+                    default -> throw new IOException("line %d: invalid cover '%s'".formatted(definition.lineNumber(), cube));
+                }
+            }
+            // Eine Zeile ohne Literale ist immer wahr (ein NOT-Gatter ohne Eingang)
+            terms.add(literals.isEmpty() ? place(GateType.NOT, null, List.of())
+                    : literals.size() == 1 ? literals.get(0) : place(GateType.AND, null, literals));
+        }
+        Point result = terms.isEmpty() ? place(GateType.AND, null, List.of())
+                : terms.size() == 1 ? terms.get(0) : place(GateType.OR, null, terms);
+        return definition.offSet() ? negate(result) : result;
+    }
+
+    // Jedes Signal wird höchstens einmal negiert
+    private Point negate(Point pos) {
+        Point negation = negations.get(pos);
+        if (negation == null) {
+            negation = place(GateType.NOT, null, List.of(pos));
+            negations.put(pos, negation);
+        }
+        return negation;
+    }
+
+    private Point place(GateType type, String name, List<Point> inputs) {
+        int column = inputs.stream().mapToInt(Point::x).max().orElse(-1) + 1;
+        Point pos = new Point(column, rowCounts.merge(column, 1, Integer::sum) - 1);
+        circuit.addGate(pos, type, name);
+        for (Point input : inputs) circuit.connect(input, pos);
+        return pos;
+    }
+}
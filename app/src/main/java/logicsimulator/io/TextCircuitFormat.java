@@ -0,0 +1,127 @@
+package logicsimulator.io;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Textformat für Schaltungen: Jede Zeile beschreibt ein Gatter mit Typ, Position, Name (nur bei Ein- und Ausgängen),
+// Wert (nur bei Eingängen, "=1" für "wahr") und den Positionen der Gatter, die an seine Eingänge angeschlossen sind.
+// Leere Zeilen und Kommentare (#) werden ignoriert. Beispiel:
+//   INPUT 0,0 a =1
+//   INPUT 0,1 b
+//   AND 1,0 <- 0,0 0,1
+//   OUTPUT 2,0 f1 <- 1,0
+public final class TextCircuitFormat {
+    private TextCircuitFormat() {}
+
+    private record Connection(Point from, Point to, int lineNumber) {}
+
+    public static LogicCircuitSimulation read(Reader reader) throws IOException {
+        LogicCircuitSimulation circuit = new LogicCircuitSimulation();
+        // Die Verbindungen werden erst hergestellt, wenn alle Gatter existieren, damit die Reihenfolge der Zeilen
+        // keine Rolle spielt
+        List<Connection> connections = new ArrayList<>();
+        BufferedReader lines = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            int commentStart = line.indexOf('#');
+            if (commentStart >= 0) line = line.substring(0, commentStart);
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens[0].isEmpty()) continue;
+            if (tokens.length < 2) throw new IOException("line %d: position is missing".formatted(lineNumber));
+
+            GateType type = parseType(tokens[0], lineNumber);
+            Point pos = parsePoint(tokens[1], lineNumber);
+            int next = 2;
+            String name = null;
+            boolean value = false;
+            if ((type == GateType.INPUT || type == GateType.OUTPUT) && next < tokens.length && !tokens[next].equals("<-")
+                    && !tokens[next].startsWith("=")) {
+                name = tokens[next++];
+            }
+            if (type == GateType.INPUT && next < tokens.length && (tokens[next].equals("=0") || tokens[next].equals("=1"))) {
+                value = tokens[next++].equals("=1");
+            }
+            if (next < tokens.length) {
+                if (!tokens[next].equals("<-")) throw new IOException("line %d: unexpected token '%s'".formatted(lineNumber, tokens[next]));
+                for (next++; next < tokens.length; next++) connections.add(new Connection(parsePoint(tokens[next], lineNumber), pos, lineNumber));
+            }
+
+            try {
+                if (!circuit.addGate(pos, type, name)) throw new IOException("line %d: position is already used".formatted(lineNumber));
+                if (value) circuit.interactWith(pos);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("line %d: %s".formatted(lineNumber, e.getMessage()), e);
+            }
+        }
+
+        for (Connection connection : connections) {
+            try {
+                if (!circuit.connect(connection.from(), connection.to())) throw new IOException("line %d: invalid connection".formatted(connection.lineNumber()));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("line %d: %s".formatted(connection.lineNumber(), e.getMessage()), e);
+            }
+        }
+        return circuit;
+    }
+
+    // Die Gatter werden in topologischer Reihenfolge geschrieben (jedes Gatter nach seinen Eingängen)
+    public static void write(LogicCircuit circuit, Writer writer) throws IOException {
+        BufferedWriter out = writer instanceof BufferedWriter bufferedWriter ? bufferedWriter : new BufferedWriter(writer);
+        out.write("# Logic Circuit Simulator\n");
+        for (Point pos : CircuitFiles.getTopologicalOrder(circuit)) {
+            Gate gate = circuit.getGateAt(pos);
+            out.write(gate.getType().name());
+            out.write(' ');
+            writePoint(out, pos);
+            if (gate.getName().isPresent()) {
+                String name = gate.getName().get();
+                if (!name.matches("[^\\s#=<][^\\s#]*")) throw new IOException("name '%s' cannot be stored in the text format".formatted(name));
+                out.write(' ');
+                out.write(name);
+            }
+            if (gate.getType() == GateType.INPUT && gate.getOutput()) out.write(" =1");
+            if (!gate.getInputs().isEmpty()) {
+                out.write(" <-");
+                for (Point input : gate.getInputs()) {
+                    out.write(' ');
+                    writePoint(out, input);
+                }
+            }
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static void writePoint(Writer out, Point pos) throws IOException {
+        out.write(Integer.toString(pos.x()));
+        out.write(',');
+        out.write(Integer.toString(pos.y()));
+    }
+
+    private static GateType parseType(String token, int lineNumber) throws IOException {
+        try {
+            return GateType.valueOf(token);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("line %d: unknown gate type '%s'".formatted(lineNumber, token), e);
+        }
+    }
+
+    private static Point parsePoint(String token, int lineNumber) throws IOException {
+        int separator = token.indexOf(',');
+        try {
+            if (separator < 0) throw new NumberFormatException();
+            return new Point(Integer.parseInt(token.substring(0, separator)), Integer.parseInt(token.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IOException("line %d: invalid position '%s'".formatted(lineNumber, token), e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package logicsimulator.ui;
+
+import logicsimulator.core.CircuitListener;
+import logicsimulator.core.Connection;
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.Gate;
+import logicsimulator.core.gate.GateType;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import static logicsimulator.ui.MainWindow.TILE_SIZE;
+
+// Puffer für die Zeichenfläche rechts von der Gatter-Auswahl: Das Raster wird nur bei einer neuen Fenstergröße
+// gezeichnet, die Schaltung (auf einer Kopie des Rasters) nur für die Felder, die sich seit dem letzten Zeichnen
+// geändert haben. Bei unveränderter Schaltung wird in jedem Bild also nur noch ein Bild kopiert.
+// Ob sich etwas geändert hat, ergibt sich aus der Version der Schaltung und der Auswahl, welche Felder betroffen sind,
+// aus dem Vergleich der sichtbaren Gatter und Verbindungen (mit Ausgangswert und Auswahl) mit dem letzten Zeichnen.
+final class CircuitLayers {
+    private record DrawnGate(GateType type, Optional<String> name, boolean output, boolean selected) {}
+    private record DrawnConnection(boolean output, boolean selected) {}
+
+    private final PGraphics g;
+    private final BiFunction<Integer, Integer, PGraphics> createGraphics;
+    private final LogicCircuit circuit;
+    private final DrawableGate drawableGate;
+    private final int colorBlack, colorWhite;
+
+    private PGraphics grid, scene;
+    private DrawableGate sceneGate;
+    private int xOffset, yOffset;
+    private long drawnVersion = -1;
+    private boolean selectionChanged;
+    private Map<Point, DrawnGate> drawnGates = Map.of();
+    private Map<Connection, DrawnConnection> drawnConnections = Map.of();
+
+    CircuitLayers(PGraphics g, BiFunction<Integer, Integer, PGraphics> createGraphics, LogicCircuit circuit, DrawableGate drawableGate) {
+        this.g = g;
+        this.createGraphics = createGraphics;
+        this.circuit = circuit;
+        this.drawableGate = drawableGate;
+        colorBlack = g.color(0, 0, 0);
+        colorWhite = g.color(255, 255, 255);
+        circuit.addListener(new CircuitListener() {
+            @Override
+            public void selectionChanged(Point pos) {
+                selectionChanged = true;
+            }
+        });
+    }
+
+    void draw(int x, int width, int height, int xOffset, int yOffset) {
+        width = Math.max(width, 1);
+        height = Math.max(height, 1);
+        if (scene == null || scene.width != width || scene.height != height) {
+            createLayers(width, height);
+            this.xOffset = xOffset;
+            this.yOffset = yOffset;
+            redrawAll();
+        } else if (xOffset != this.xOffset || yOffset != this.yOffset) {
+            this.xOffset = xOffset;
+            this.yOffset = yOffset;
+            redrawAll();
+        } else if (selectionChanged || circuit.getVersion() != drawnVersion) {
+            redrawChanges();
+        }
+        selectionChanged = false;
+        drawnVersion = circuit.getVersion();
+        g.image(scene, x, 0);
+    }
+
+    private void createLayers(int width, int height) {
+        grid = createGraphics.apply(width, height);
+        grid.beginDraw();
+        grid.background(colorWhite);
+        grid.strokeWeight(1);
+        grid.stroke(colorBlack);
+        IntStream.range(1, height / TILE_SIZE).forEach(row -> grid.line(0, row * TILE_SIZE, width, row * TILE_SIZE));
+        IntStream.range(1, (width + GateSelectionWindow.WINDOW_WIDTH) / TILE_SIZE)
+                .forEach(column -> grid.line(column * TILE_SIZE, 0, column * TILE_SIZE, height));
+        grid.endDraw();
+
+        scene = createGraphics.apply(width, height);
+        scene.beginDraw();
+        scene.textAlign(PConstants.CENTER);
+        scene.endDraw();
+        sceneGate = drawableGate.withGraphics(scene);
+    }
+
+    // Sichtbarer Bereich (in Feldern der Schaltung) plus ein Feld Rand
+    private Point getMin() {
+        return new Point(-xOffset - 1, -yOffset - 1);
+    }
+
+    private Point getMax() {
+        return new Point((scene.width + TILE_SIZE - 1) / TILE_SIZE - xOffset, (scene.height + TILE_SIZE - 1) / TILE_SIZE - yOffset);
+    }
+
+    private void redrawAll() {
+        Point min = getMin(), max = getMax();
+        drawnGates = getDrawnGates(min, max);
+        drawnConnections = getDrawnConnections(min, max);
+        scene.beginDraw();
+        scene.copy(grid, 0, 0, grid.width, grid.height, 0, 0, grid.width, grid.height);
+        drawGatesIn(min, max);
+        scene.endDraw();
+    }
+
+    private void redrawChanges() {
+        Point min = getMin(), max = getMax();
+        Map<Point, DrawnGate> gates = getDrawnGates(min, max);
+        Map<Connection, DrawnConnection> connections = getDrawnConnections(min, max);
+
+        Set<Point> dirtyTiles = new HashSet<>();
+        for (Point pos : getChangedKeys(drawnGates, gates)) {
+            // Lange Namen können über das Feld hinausragen
+            dirtyTiles.add(pos);
+            dirtyTiles.add(new Point(pos.x() - 1, pos.y()));
+            dirtyTiles.add(new Point(pos.x() + 1, pos.y()));
+        }
+        for (Connection connection : getChangedKeys(drawnConnections, connections)) {
+            Point from = connection.from(), to = connection.to();
+            for (int x = Math.max(Math.min(from.x(), to.x()), min.x()); x <= Math.min(Math.max(from.x(), to.x()), max.x()); x++) {
+                for (int y = Math.max(Math.min(from.y(), to.y()), min.y()); y <= Math.min(Math.max(from.y(), to.y()), max.y()); y++) {
+                    dirtyTiles.add(new Point(x, y));
+                }
+            }
+        }
+        drawnGates = gates;
+        drawnConnections = connections;
+        if (dirtyTiles.isEmpty()) return;
+
+        // Bei sehr vielen Änderungen ist es schneller, alles neu zu zeichnen
+        if (dirtyTiles.size() > (max.x() - min.x() + 1) * (max.y() - min.y() + 1) / 2) {
+            redrawAll();
+            return;
+        }
+        scene.beginDraw();
+        for (Point tile : dirtyTiles) {
+            int tileX = (tile.x() + xOffset) * TILE_SIZE, tileY = (tile.y() + yOffset) * TILE_SIZE;
+            if (tileX + TILE_SIZE <= 0 || tileY + TILE_SIZE <= 0 || tileX >= scene.width || tileY >= scene.height) continue;
+            scene.copy(grid, tileX, tileY, TILE_SIZE, TILE_SIZE, tileX, tileY, TILE_SIZE, TILE_SIZE);
+            scene.clip(tileX, tileY, TILE_SIZE, TILE_SIZE);
+            drawGatesIn(tile, tile);
+            scene.noClip();
+        }
+        scene.endDraw();
+    }
+
+    private static <K, V> Set<K> getChangedKeys(Map<K, V> before, Map<K, V> after) {
+        Set<K> changedKeys = new HashSet<>();
+        before.forEach((key, value) -> {
+            if (!value.equals(after.get(key))) changedKeys.add(key);
+        });
+        after.keySet().forEach(key -> {
+            if (!before.containsKey(key)) changedKeys.add(key);
+        });
+        return changedKeys;
+    }
+
+    private Map<Point, DrawnGate> getDrawnGates(Point min, Point max) {
+        Map<Point, DrawnGate> gates = new HashMap<>();
+        for (Point pos : circuit.getGatePositionsIn(min, max)) {
+            Gate gate = circuit.getGateAt(pos);
+            gates.put(pos, new DrawnGate(gate.getType(), gate.getName(), circuit.getOutputAt(pos), circuit.isSelected(pos)));
+        }
+        return gates;
+    }
+
+    private Map<Connection, DrawnConnection> getDrawnConnections(Point min, Point max) {
+        Map<Connection, DrawnConnection> connections = new HashMap<>();
+        for (Connection connection : circuit.getConnectionsIn(min, max)) {
+            connections.put(connection, new DrawnConnection(circuit.getOutputAt(connection.from()), circuit.isSelected(connection.from())));
+        }
+        return connections;
+    }
+
+    // Zeichnet alle Gatter und Verbindungen, die in den Feldern von "min" bis "max" liegen (Gatter aus den
+    // Nachbarfeldern auch, da sie in das Feld hineinragen können)
+    private void drawGatesIn(Point min, Point max) {
+        for (Point pos : circuit.getGatePositionsIn(new Point(min.x() - 1, min.y()), new Point(max.x() + 1, max.y()))) {
+            sceneGate.draw((pos.x() + xOffset) * TILE_SIZE, (pos.y() + yOffset) * TILE_SIZE,
+                    circuit.getGateAt(pos), circuit.getOutputAt(pos), circuit.isSelected(pos));
+        }
+        for (Connection connection : circuit.getConnectionsIn(min, max)) {
+            Point pos = connection.to(), inputPosition = connection.from();
+            sceneGate.drawConnection((pos.x() + xOffset) * TILE_SIZE, (pos.y() + yOffset) * TILE_SIZE,
+                    (inputPosition.x() + xOffset) * TILE_SIZE, (inputPosition.y() + yOffset) * TILE_SIZE,
+                    circuit.getOutputAt(inputPosition), circuit.isSelected(inputPosition));
+        }
+    }
+}
@@ -24,6 +24,11 @@ public class DrawableGate {
         colorRed = g.color(255, 0, 0);
     }
 
+    // Zeichnet dieselben Gatter in einen anderen Puffer
+    public DrawableGate withGraphics(PGraphics g) {
+        return new DrawableGate(g, enabledOutput);
+    }
+
     public void draw(int x, int y, GateType type, int gateColor, boolean isEnabled) {
         g.stroke(gateColor);
         g.strokeWeight(3);
@@ -52,24 +57,25 @@ public class DrawableGate {
         }
     }
 
-    public void draw(int x, int y, Gate gate, boolean isSelected) {
-        int gateColor = getGateColor(gate, isSelected);
-        draw(x, y, gate.getType(), gateColor, gate.getOutput());
+    public void draw(int x, int y, Gate gate, boolean output, boolean isSelected) {
+        int gateColor = getGateColor(output, isSelected);
+        draw(x, y, gate.getType(), gateColor, output);
 
         g.fill(gateColor);
         g.textSize(12);
         g.text(gate.getName().orElse(""), x + 30, y + 10);
     }
 
-    public void drawConnection(int startX, int startY, int endX, int endY, Gate inputGate, boolean isInputSelected) {
-        g.stroke(getGateColor(inputGate, isInputSelected));
+    public void drawConnection(int startX, int startY, int endX, int endY, boolean inputOutput, boolean isInputSelected) {
+        g.stroke(getGateColor(inputOutput, isInputSelected));
+        g.strokeWeight(3);
         g.line(startX + 10, startY + 30, endX + 50, endY + 30);
     }
 
-    private int getGateColor(Gate gate, boolean isSelected) {
+    private int getGateColor(boolean output, boolean isSelected) {
         if (isSelected) {
             return colorBlue;
         }
-        return gate.getOutput() ? colorRed : colorBlack;
+        return output ? colorRed : colorBlack;
     }
 }
@@ -11,27 +11,33 @@ import java.awt.*;
 import java.awt.datatransfer.StringSelection;
 import java.io.File;
 import java.io.IOException;
-import java.util.stream.IntStream;
+import java.nio.file.Path;
+import java.util.function.BiFunction;
 
 import static logicsimulator.ui.GateSelectionWindow.WINDOW_WIDTH;
 
 public class MainWindow {
     private final PGraphics g;
     private final LogicCircuit circuit;
-    private final DrawableGate drawableGate;
-    private final int colorBlack, colorGrey, colorDarkGrey, colorWhite, colorRed;
+    private final CircuitLayers layers;
+    private final int colorGrey, colorDarkGrey, colorWhite, colorRed;
     public static final int TILE_SIZE = 60;
 
     private int xOffset, yOffset;
     private String message;
     private long messageDuration;
     private boolean showContextMenu;
-
-    public MainWindow(PGraphics g, LogicCircuit circuit, DrawableGate drawableGate) {
+    // Gatter für den Arduino-Sketch bzw. alle Ausgänge (beim Klick auf das Menü festgehalten). Die Dateiauswahl
+    // ruft saveArduinoSketch() in einem eigenen Thread auf, gespeichert wird deshalb erst in draw().
+    private Point sketchPos;
+    private boolean sketchAllOutputs;
+    private volatile Path pendingSketchPath;
+
+    // "createGraphics" erzeugt die Puffer für die Schaltung (PApplet.createGraphics)
+    public MainWindow(PGraphics g, BiFunction<Integer, Integer, PGraphics> createGraphics, LogicCircuit circuit, DrawableGate drawableGate) {
         this.g = g;
         this.circuit = circuit;
-        this.drawableGate = drawableGate;
-        colorBlack = g.color(0, 0, 0);
+        layers = new CircuitLayers(g, createGraphics, circuit, drawableGate);
         colorGrey = g.color(128, 128, 128);
         colorDarkGrey = g.color(85, 85, 85);
         colorWhite = g.color(255, 255, 255);
@@ -39,36 +45,16 @@ public class MainWindow {
     }
 
     public void draw(int width, int height, int mouseX, int mouseY) {
-        drawCoordinateSystem(width, height);
-        drawGates();
+        Path sketchPath = pendingSketchPath;
+        if (sketchPath != null) {
+            pendingSketchPath = null;
+            writeArduinoSketch(sketchPath);
+        }
+        layers.draw(WINDOW_WIDTH, width - WINDOW_WIDTH, height, xOffset, yOffset);
         drawErrorMessage(width);
         drawContextMenu(width, mouseX, mouseY);
     }
 
-    private void drawCoordinateSystem(int width, int height) {
-        g.strokeWeight(1);
-        g.stroke(colorBlack);
-
-        IntStream.range(1, height / TILE_SIZE)
-                .forEach(row -> g.line(WINDOW_WIDTH, row * TILE_SIZE, width, row * TILE_SIZE));
-        IntStream.range(1, width / TILE_SIZE)
-                .forEach(column -> g.line(WINDOW_WIDTH + column * TILE_SIZE, 0, WINDOW_WIDTH + column * TILE_SIZE, height));
-    }
-
-    private void drawGates() {
-        for (Point pos : circuit.getGatePositions()) {
-            Point offsetPos = new Point(pos.x() + xOffset, pos.y() + yOffset);
-            drawableGate.draw(offsetPos.x() * TILE_SIZE + WINDOW_WIDTH, offsetPos.y() * TILE_SIZE, circuit.getGateAt(pos), circuit.isSelected(pos));
-
-            for (Point inputPosition : circuit.getGateAt(pos).getInputs()) {
-                Point offsetInput = new Point(inputPosition.x() + xOffset, inputPosition.y() + yOffset);
-                drawableGate.drawConnection(offsetPos.x() * TILE_SIZE + WINDOW_WIDTH, offsetPos.y() * TILE_SIZE,
-                        offsetInput.x() * TILE_SIZE + WINDOW_WIDTH, offsetInput.y() * TILE_SIZE,
-                        circuit.getGateAt(inputPosition), circuit.isSelected(inputPosition));
-            }
-        }
-    }
-
     private void drawErrorMessage(int width) {
         if (System.currentTimeMillis() < messageDuration) {
             g.textSize(18);
@@ -77,41 +63,66 @@ public class MainWindow {
         }
     }
 
+    public void showMessage(String message) {
+        this.message = message;
+        messageDuration = System.currentTimeMillis() + 2000;
+    }
+
     private void drawContextMenu(int width, int mouseX, int mouseY) {
         if (showContextMenu) {
             g.fill(colorGrey);
             g.noStroke();
-            g.rect(width - 185, 5, 180, 60);
+            g.rect(width - 185, 5, 180, 120);
             g.fill(colorDarkGrey);
             if (mouseX >= width - 185) {
                 if (mouseY <= 30) {
                     g.rect(width - 185, 5, 180, 30);
                 } else if (mouseY <= 60) {
                     g.rect(width - 185, 35, 180, 30);
+                } else if (mouseY <= 90) {
+                    g.rect(width - 185, 65, 180, 30);
+                } else if (mouseY <= 120) {
+                    g.rect(width - 185, 95, 180, 30);
                 }
             }
             g.fill(colorWhite);
             g.textSize(18);
             g.text("Wertetabelle", width - 125, 25);
             g.text("Arduino-Sketch", width - 113, 55);
+            g.text("Alle Ausg\u00E4nge", width - 119, 85);
+            g.text("Ausg\u00E4nge als Sketch", width - 105, 115);
         }
     }
 
     public void onMousePressed(int width, int height, int mouseX, int mouseY, int mouseButton) {
-        if (mouseX >= width - 185) {
+        if (showContextMenu && mouseX >= width - 185 && mouseY <= 120) {
             if (mouseY <= 30) {
-                Toolkit.getDefaultToolkit().getSystemClipboard()
-                        .setContents(new StringSelection(circuit.getTableOfValues().orElseThrow().toString()), null);
-                message = "Wertetabelle in die Zwischenablage kopiert.";
+                circuit.getTableOfValues().ifPresentOrElse(table -> {
+                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(table.toString()), null);
+                    message = "Wertetabelle in die Zwischenablage kopiert.";
+                }, () -> message = "Die Wertetabelle ist nicht verf\u00FCgbar.");
                 messageDuration = System.currentTimeMillis() + 2000;
             } else if (mouseY <= 60) {
+                sketchPos = getSelectedPosition();
+                sketchAllOutputs = false;
+                PApplet.selectOutput("Arduino-Sketch speichern", "saveArduinoSketch", null, this, null);
+            } else if (mouseY <= 90) {
+                // Wertetabelle aller Ausgänge (in einem Durchlauf berechnet)
+                circuit.getOutputTableOfValues().ifPresentOrElse(table -> {
+                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(table.toString()), null);
+                    message = "Wertetabelle aller Ausg\u00E4nge in die Zwischenablage kopiert.";
+                }, () -> message = "Es wurden noch keine Ausg\u00E4nge hinzugef\u00FCgt.");
+                messageDuration = System.currentTimeMillis() + 2000;
+            } else {
+                // Alle Ausgänge in einen gemeinsamen Sketch exportieren
+                sketchAllOutputs = true;
                 PApplet.selectOutput("Arduino-Sketch speichern", "saveArduinoSketch", null, this, null);
             }
         } else if (mouseX >= WINDOW_WIDTH && mouseY <= height - TILE_SIZE) {
             Point pos = new Point((mouseX - WINDOW_WIDTH) / TILE_SIZE - xOffset, mouseY / TILE_SIZE - yOffset);
             if (mouseButton == PConstants.LEFT && !circuit.addGate(pos)) {
                 circuit.toggleSelection(pos);
-                showContextMenu = circuit.getTableOfValues().isPresent();
+                showContextMenu = circuit.hasTableOfValues();
             } else if (mouseButton == PConstants.RIGHT && !circuit.interactWith(pos)) {
                 message = "Verbindung nicht m\u00F6glich.";
                 messageDuration = System.currentTimeMillis() + 2000;
@@ -135,17 +146,28 @@ public class MainWindow {
         }
     }
 
+    private Point getSelectedPosition() {
+        for (Point pos : circuit.getGatePositions()) {
+            if (circuit.isSelected(pos)) return pos;
+        }
+        return null;
+    }
+
     @SuppressWarnings("unused")
     public void saveArduinoSketch(File selection) {
-        if (selection != null) {
-            ArduinoSketch arduinoSketch = new ArduinoSketch(circuit.getTableOfValues().orElseThrow(), selection.toPath());
-            try {
-                arduinoSketch.saveToDisk();
-                message = "Der Arduino-Sketch wurde erfolgreich gespeichert.";
-            } catch (IOException e) {
-                message = "Der Arduino-Sketch konnte nicht gespeichert werden!";
-            }
-            messageDuration = System.currentTimeMillis() + 2000;
+        if (selection != null) pendingSketchPath = selection.toPath();
+    }
+
+    private void writeArduinoSketch(Path path) {
+        try {
+            // Das Gatter kann inzwischen entfernt worden sein
+            ArduinoSketch arduinoSketch = sketchAllOutputs ? ArduinoSketch.forAllOutputs(circuit, path)
+                    : new ArduinoSketch(circuit, sketchPos, path);
+            arduinoSketch.saveToDisk();
+            message = "Der Arduino-Sketch wurde erfolgreich gespeichert.";
+        } catch (IOException | IllegalArgumentException e) {
+            message = "Der Arduino-Sketch konnte nicht gespeichert werden!";
         }
+        messageDuration = System.currentTimeMillis() + 2000;
     }
 }
@@ -1,16 +1,54 @@
 package logicsimulator;
 
+import logicsimulator.arduino.ArduinoSketch;
+import logicsimulator.arduino.CodeStrategy;
+import logicsimulator.cli.BatchSimulator;
+import logicsimulator.core.BooleanFunctionRenderer;
+import logicsimulator.core.CircuitListener;
+import logicsimulator.core.Connection;
+import logicsimulator.core.Implicant;
 import logicsimulator.core.LogicCircuit;
 import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.core.LogicMinimizer;
+import logicsimulator.core.Netlist;
+import logicsimulator.core.OutputCache;
 import logicsimulator.core.Point;
 import logicsimulator.core.TableOfValues;
+import logicsimulator.core.bdd.BddManager;
+import logicsimulator.core.bdd.CircuitBdd;
+import logicsimulator.core.bdd.EquivalenceResult;
+import logicsimulator.core.gate.EditableGate;
+import logicsimulator.core.gate.Gate;
 import logicsimulator.core.gate.GateType;
+import logicsimulator.generator.CircuitGenerator;
+import logicsimulator.io.BenchFormat;
+import logicsimulator.io.BlifFormat;
+import logicsimulator.io.CircuitFiles;
+import logicsimulator.io.TextCircuitFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -457,5 +495,934 @@ public class LogicSimulatorTest {
 
         String expectedDisjunctiveNormalForm = "(!a ^ !b ^ c) v (!a ^ b ^ c) v (a ^ !b ^ c) v (a ^ b ^ !c)";
         assertEquals(expectedDisjunctiveNormalForm, actualTable.getDisjunctiveNormalForm(), "Wrong disjunctive normal form");
+        assertEquals("(!a ^ c) v (!b ^ c) v (a ^ b ^ !c)", actualTable.getMinimalDisjunctiveForm(), "Wrong minimal disjunctive form");
+    }
+
+    // Die kompilierte Schaltung muss die gleichen Ausgangswerte wie die Gatter selbst liefern
+    // (auch nach dem Umschalten von Eingängen und nach Änderungen an den Verbindungen)
+    @Test public void testCompiledOutput() {
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1));
+        c.setSelectedType(GateType.EXCLUSIVE_OR).addGate(new Point(1, 0));
+        c.toggleSelection(new Point(0, 0)).interactWith(new Point(1, 0));
+        c.toggleSelection(new Point(0, 1)).interactWith(new Point(1, 0));
+        c.setSelectedType(GateType.NOT).addGate(new Point(2, 0));
+        c.toggleSelection(new Point(1, 0)).interactWith(new Point(2, 0));
+        assertTrue(c.getOutputAt(new Point(2, 0)), "Wrong output");
+        c.interactWith(new Point(0, 0));
+        assertFalse(c.getOutputAt(new Point(2, 0)), "Wrong output");
+        c.interactWith(new Point(0, 1));
+        assertTrue(c.getOutputAt(new Point(2, 0)), "Wrong output");
+        for (Point pos : c.getGatePositions()) {
+            assertEquals(c.getGateAt(pos).getOutput(), c.getOutputAt(pos), "Compiled output differs at " + pos);
+        }
+        c.toggleSelection(new Point(1, 0)).removeSelectedGate();
+        assertTrue(c.getOutputAt(new Point(2, 0)), "Wrong output after removal");
+    }
+
+    // Wertetabelle mit mehr als 64 Zeilen testen (wird blockweise mit 64 Zeilen gleichzeitig berechnet)
+    @Test public void testLargeTableOfValues() {
+        c.setSelectedType(GateType.OR).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.EXCLUSIVE_OR).addGate(new Point(1, 1));
+        c.setSelectedType(GateType.INPUT);
+        for (int y = 0; y < 7; y++) {
+            c.addGate(new Point(0, y));
+            c.toggleSelection(new Point(0, y)).interactWith(new Point(1, 0));
+            c.interactWith(new Point(1, 1));
+        }
+
+        TableOfValues orTable = c.toggleSelection(new Point(1, 0)).getTableOfValues().orElseThrow();
+        assertEquals(128, orTable.getRowCount(), "Wrong number of rows");
+        assertFalse(orTable.getOutput(0, 0), "Wrong output in first row");
+        assertTrue(LongStream.range(1, 128).allMatch(row -> orTable.getOutput(row, 0)), "Wrong output");
+
+        TableOfValues xorTable = c.toggleSelection(new Point(1, 1)).getTableOfValues().orElseThrow();
+        for (int row = 0; row < 128; row++) {
+            assertEquals(Integer.bitCount(row) == 1, xorTable.getOutput(row, 0), "Wrong output in row " + row);
+            assertEquals((row & 1) != 0, xorTable.getInput(row, 6), "Wrong input value in row " + row);
+        }
+    }
+
+    // Nach dem Umschalten eines Eingangs werden nur die abhängigen Gatter neu berechnet
+    // (hier eine Kette aus Nicht-Gattern, an der zusätzlich ein Und-Gatter mit zwei Eingängen hängt)
+    @Test public void testInputTogglePropagation() {
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1));
+        c.setSelectedType(GateType.NOT);
+        for (int x = 1; x <= 10; x++) {
+            c.addGate(new Point(x, 0));
+            c.toggleSelection(new Point(x - 1, 0)).interactWith(new Point(x, 0));
+        }
+        c.setSelectedType(GateType.AND).addGate(new Point(11, 0));
+        c.toggleSelection(new Point(10, 0)).interactWith(new Point(11, 0));
+        c.toggleSelection(new Point(0, 1)).interactWith(new Point(11, 0));
+
+        assertFalse(c.getOutputAt(new Point(11, 0)), "Wrong output");
+        c.interactWith(new Point(0, 1));
+        assertFalse(c.getOutputAt(new Point(11, 0)), "Wrong output");
+        c.interactWith(new Point(0, 0));
+        assertTrue(c.getOutputAt(new Point(11, 0)), "Wrong output");
+        for (int x = 1; x <= 10; x++) {
+            assertEquals(x % 2 == 0, c.getOutputAt(new Point(x, 0)), "Wrong output at gate " + x);
+        }
+
+        // Nur die Gatter, die vom umgeschalteten Eingang abhängen, werden neu berechnet
+        Map<Point, Gate> gates = new HashMap<>();
+        for (Point pos : c.getGatePositions()) gates.put(pos, c.getGateAt(pos));
+        Netlist netlist = Netlist.compile(gates);
+        assertTrue(netlist.getValue(netlist.getId(new Point(11, 0))), "Wrong output");
+        long evaluations = netlist.getEvaluationCount();
+        netlist.setInput(netlist.getId(new Point(0, 1)), false);
+        assertEquals(1, netlist.getEvaluationCount() - evaluations, "Only the AND gate should be evaluated");
+        assertFalse(netlist.getValue(netlist.getId(new Point(11, 0))), "Wrong output");
+        evaluations = netlist.getEvaluationCount();
+        netlist.setInput(netlist.getId(new Point(0, 0)), false);
+        assertEquals(11, netlist.getEvaluationCount() - evaluations, "Only the fan-out cone of the input should be evaluated");
+        assertTrue(netlist.getValue(netlist.getId(new Point(1, 0))), "Wrong output");
+        evaluations = netlist.getEvaluationCount();
+        netlist.setInput(netlist.getId(new Point(0, 0)), false);
+        assertEquals(evaluations, netlist.getEvaluationCount(), "Unchanged input should not cause evaluations");
+    }
+
+    // Jedes Gatter wird pro Änderung an der Schaltung höchstens einmal berechnet
+    // (hier eine Kette aus Und-Gattern, die ihren Vorgänger jeweils doppelt als Eingang verwenden;
+    // ohne Zwischenspeicher wären 2^12 Berechnungen nötig)
+    @Test public void testOutputCache() {
+        c.setSelectedType(GateType.INPUT).addGate(new Point(0, 0));
+        c.setSelectedType(GateType.AND);
+        for (int x = 1; x <= 12; x++) {
+            c.addGate(new Point(x, 0));
+            c.toggleSelection(new Point(x - 1, 0)).interactWith(new Point(x, 0));
+            c.interactWith(new Point(x, 0));
+        }
+        c.toggleSelection(new Point(0, 0)).interactWith(new Point(0, 0));
+
+        long misses = c.getOutputCacheStatistics().misses();
+        assertTrue(c.getGateAt(new Point(12, 0)).getOutput(), "Wrong output");
+        assertEquals(12, c.getOutputCacheStatistics().misses() - misses, "Gates were evaluated more than once");
+        assertTrue(c.getGateAt(new Point(12, 0)).getOutput(), "Wrong output");
+        assertEquals(12, c.getOutputCacheStatistics().misses() - misses, "Cached output was not used");
+        OutputCache.Statistics statistics = c.getOutputCacheStatistics();
+        assertTrue(statistics.hits() >= 12, "Cache hits were not counted");
+        assertTrue(c.getGateAt(new Point(12, 0)).getOutput(), "Wrong output");
+        assertTrue(c.getOutputCacheStatistics().hits() > statistics.hits(), "Cache hits were not counted");
+
+        c.interactWith(new Point(0, 0));
+        assertFalse(c.getGateAt(new Point(12, 0)).getOutput(), "Cache was not invalidated");
+    }
+
+    // Schleifen müssen auch erkannt werden, wenn Gatter entgegen der Reihenfolge ihres Hinzufügens verbunden werden
+    // (die topologische Reihenfolge der Gatter muss dann angepasst werden)
+    @Test public void testLoopDetectionAfterReordering() {
+        c.addGates(new Point(0, 0), new Point(0, 1), new Point(0, 2), new Point(0, 3));
+        assertTrue(c.toggleSelection(new Point(0, 2)).interactWith(new Point(0, 0)), "Connection could not be added");
+        assertTrue(c.toggleSelection(new Point(0, 0)).interactWith(new Point(0, 1)), "Connection could not be added");
+        assertTrue(c.toggleSelection(new Point(0, 3)).interactWith(new Point(0, 2)), "Connection could not be added");
+        assertFalse(c.toggleSelection(new Point(0, 1)).interactWith(new Point(0, 2)), "Invalid connection was added");
+        assertFalse(c.interactWith(new Point(0, 3)), "Invalid connection was added");
+
+        // Nach dem Entfernen eines Gatters in der Mitte ist die Verbindung wieder erlaubt
+        c.toggleSelection(new Point(0, 0)).removeSelectedGate();
+        assertTrue(c.toggleSelection(new Point(0, 1)).interactWith(new Point(0, 3)), "Connection could not be added");
+        assertFalse(c.toggleSelection(new Point(0, 2)).interactWith(new Point(0, 1)), "Invalid connection was added");
+    }
+
+    // Abfrage der angesteuerten Gatter testen (wird beim Entfernen eines Gatters sofort aktualisiert)
+    @Test public void testFanOut() {
+        c.setSelectedType(GateType.INPUT).addGate(new Point(0, 0));
+        c.setSelectedType(GateType.AND).addGates(new Point(1, 0), new Point(1, 1));
+        c.setSelectedType(GateType.NOT).addGate(new Point(1, 2));
+        c.toggleSelection(new Point(0, 0)).interactWith(new Point(1, 0));
+        c.interactWith(new Point(1, 1));
+        c.interactWith(new Point(1, 2));
+        c.toggleSelection(new Point(1, 0)).interactWith(new Point(1, 1));
+        assertEquals(List.of(new Point(1, 0), new Point(1, 1), new Point(1, 2)), c.getFanOut(new Point(0, 0)), "Wrong fan-out");
+        assertEquals(List.of(new Point(1, 1)), c.getFanOut(new Point(1, 0)), "Wrong fan-out");
+
+        // Beim Nicht-Gatter wird die bisherige Verbindung ersetzt
+        c.interactWith(new Point(1, 2));
+        assertEquals(List.of(new Point(1, 0), new Point(1, 1)), c.getFanOut(new Point(0, 0)), "Replaced connection was not removed");
+
+        c.toggleSelection(new Point(1, 0)).toggleSelection(new Point(0, 0)).removeSelectedGate();
+        assertEquals(List.of(new Point(1, 0)), c.getGateAt(new Point(1, 1)).getInputs(), "Connection was not removed");
+        assertTrue(c.getFanOut(new Point(1, 1)).isEmpty(), "Wrong fan-out");
+        assertThrows(IllegalArgumentException.class, () -> c.getFanOut(new Point(0, 0)), "Removed gate did not cause an exception");
+    }
+
+    // Gatter, die mehrere andere Gatter ansteuern, werden nur einmal als Hilfsterm ausgeschrieben
+    @Test public void testSharedSubexpressions() {
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1), new Point(0, 2));
+        c.setSelectedType(GateType.AND).addGate(new Point(1, 0));
+        c.toggleSelection(new Point(0, 0)).interactWith(new Point(1, 0));
+        c.toggleSelection(new Point(0, 1)).interactWith(new Point(1, 0));
+        c.setSelectedType(GateType.OR).addGate(new Point(2, 0));
+        c.toggleSelection(new Point(1, 0)).interactWith(new Point(2, 0));
+        c.toggleSelection(new Point(0, 2)).interactWith(new Point(2, 0));
+        c.setSelectedType(GateType.NOT).addGate(new Point(2, 1));
+        c.toggleSelection(new Point(1, 0)).interactWith(new Point(2, 1));
+        c.setSelectedType(GateType.OUTPUT).addGates(new Point(3, 0), new Point(3, 1));
+        c.toggleSelection(new Point(2, 0)).interactWith(new Point(3, 0));
+        c.toggleSelection(new Point(2, 1)).interactWith(new Point(3, 1));
+
+        assertEquals("t1 = a ^ b; f1 = t1 v c; f2 = !t1", c.getBooleanFunctions().orElseThrow(), "Wrong boolean functions");
+
+        // Namen von Ein- und Ausgängen werden für Hilfsterme nicht verwendet
+        LogicCircuit named = new LogicCircuitSimulation();
+        named.addGate(new Point(0, 0), GateType.INPUT, "t1");
+        named.addGate(new Point(0, 1), GateType.INPUT, "b");
+        named.addGate(new Point(1, 0), GateType.AND);
+        named.connect(new Point(0, 0), new Point(1, 0));
+        named.connect(new Point(0, 1), new Point(1, 0));
+        named.addGate(new Point(2, 0), GateType.OUTPUT, "t2");
+        named.addGate(new Point(2, 1), GateType.OUTPUT, "q");
+        named.connect(new Point(1, 0), new Point(2, 0));
+        named.connect(new Point(1, 0), new Point(2, 1));
+        assertEquals("t3 = t1 ^ b; q = t3; t2 = t3", named.getBooleanFunctions().orElseThrow(), "Term name clashes with an input or output");
+    }
+
+    // Sehr lange boolesche Funktionen werden gekürzt
+    @Test public void testBooleanFunctionLengthLimit() {
+        c.setSelectedType(GateType.INPUT);
+        for (int y = 0; y < 40; y++) c.addGate(new Point(0, y));
+        c.setSelectedType(GateType.OR).addGate(new Point(1, 0));
+        for (int y = 0; y < 40; y++) c.toggleSelection(new Point(0, y)).interactWith(new Point(1, 0));
+
+        String booleanFunction = new BooleanFunctionRenderer(c, 20).render(List.of(new Point(1, 0)));
+        assertEquals("a v b v c v d v e ...", booleanFunction, "Boolean function was not shortened at an operand");
+    }
+
+    // Auch sehr tiefe Schaltungen werden ohne StackOverflowError dargestellt
+    @Test public void testDeepBooleanFunction() {
+        c.setSelectedType(GateType.INPUT).addGate(new Point(0, 0));
+        c.setSelectedType(GateType.NOT);
+        for (int x = 1; x <= 20000; x++) {
+            c.addGate(new Point(x, 0));
+            c.connect(new Point(x - 1, 0), new Point(x, 0));
+        }
+        String booleanFunction = new BooleanFunctionRenderer(c, 30).render(List.of(new Point(20000, 0)));
+        assertEquals("!(!(!(!(!(!(!(!(!(!(!(!(!(!(!( ...", booleanFunction, "Wrong boolean function");
+
+        String chain = CircuitGenerator.chain(20000).getBooleanFunctions().orElseThrow();
+        assertTrue(chain.startsWith("f = ") && chain.endsWith(" ..."), "Long chain was not shortened");
+    }
+
+    // Die Wertetabelle speichert nur die Ausgangsspalten (die Eingangswerte ergeben sich aus der Zeilennummer)
+    @Test public void testPackedTableOfValues() {
+        TableOfValues table = new TableOfValues(2, new long[][] {{0b0110}}, List.of("a", "b", "a XOR b"));
+        assertEquals(new TableOfValues(List.of(List.of(false, false, false), List.of(false, true, true),
+                List.of(true, false, true), List.of(true, true, false)), List.of("a", "b", "a XOR b")), table, "Wrong table of values");
+        assertEquals("a | b | a XOR b\n---------------\n0 | 0 | 0\n0 | 1 | 1\n1 | 0 | 1\n1 | 1 | 0\n", table.getTable(), "Wrong table");
+        assertEquals("(!a ^ b) v (a ^ !b)", table.getDisjunctiveNormalForm(), "Wrong disjunctive normal form");
+
+        List<Long> minterms = new ArrayList<>();
+        table.forEachMinterm(0, minterms::add);
+        assertEquals(List.of(1L, 2L), minterms, "Wrong minterms");
+        assertThrows(IllegalArgumentException.class, () -> new TableOfValues(List.of(List.of(true, false), List.of(false, true)),
+                List.of("a", "f")), "Unsorted rows did not cause an exception");
+
+        // Die übergebenen Spalten werden kopiert und nicht verändert
+        long[][] columns = {{-1L}};
+        TableOfValues copied = new TableOfValues(1, columns, List.of("a", "f"));
+        assertEquals(-1L, columns[0][0], "Columns of the caller were changed");
+        columns[0][0] = 0;
+        assertEquals(0b11, copied.getOutputWord(0, 0), "Table was changed through the columns of the caller");
+    }
+
+    // Große Wertetabellen werden parallel berechnet (hier 2^14 Zeilen, also mehrere Teilaufgaben)
+    @Test public void testParallelTableOfValues() {
+        c.setSelectedType(GateType.EXCLUSIVE_OR).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.INPUT);
+        for (int y = 0; y < 14; y++) {
+            c.addGate(new Point(0, y));
+            c.toggleSelection(new Point(0, y)).interactWith(new Point(1, 0));
+        }
+        c.interactWith(new Point(0, 3));
+
+        TableOfValues table = c.toggleSelection(new Point(1, 0)).getTableOfValues().orElseThrow();
+        assertEquals(1 << 14, table.getRowCount(), "Wrong number of rows");
+        for (int row = 0; row < 1 << 14; row++) {
+            assertEquals(Integer.bitCount(row) == 1, table.getOutput(row, 0), "Wrong output in row " + row);
+        }
+        assertTrue(c.getGateAt(new Point(0, 3)).getOutput(), "Input state was changed");
+    }
+
+    // In der Oberfläche wird die Wertetabelle des ausgewählten Gatters nur bis 2^16 Zeilen angeboten
+    @Test public void testInteractiveTableOfValuesLimit() {
+        c.setSelectedType(GateType.OR).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.INPUT);
+        for (int y = 0; y <= TableOfValues.MAX_INTERACTIVE_INPUT_COUNT; y++) {
+            c.addGate(new Point(0, y));
+            c.toggleSelection(new Point(0, y)).interactWith(new Point(1, 0));
+        }
+        c.toggleSelection(new Point(1, 0));
+        assertFalse(c.hasTableOfValues(), "Table of values should be too large for the user interface");
+        assertTrue(c.getTableOfValues().isEmpty(), "Table of values should be too large for the user interface");
+        assertTrue(c.getTableOfValues(List.of(new Point(1, 0))).isPresent(), "Explicit tables may be larger");
+    }
+
+    // Minimierung mit beiden Verfahren testen (Quine-McCluskey bis 12 Eingänge, danach Heuristik):
+    // Die minimierte Form muss dieselbe Funktion beschreiben und darf nicht mehr Terme als nötig enthalten
+    @Test public void testLogicMinimization() {
+        for (int inputCount : new int[] {4, 14}) {
+            // f = (x0 ^ x1) v (x2 ^ !x3), alle weiteren Eingänge sind beliebig
+            long[] column = new long[Math.max(1, (1 << inputCount) >>> 6)];
+            for (int row = 0; row < 1 << inputCount; row++) {
+                boolean x0 = (row >>> (inputCount - 1) & 1) != 0, x1 = (row >>> (inputCount - 2) & 1) != 0;
+                boolean x2 = (row >>> (inputCount - 3) & 1) != 0, x3 = (row >>> (inputCount - 4) & 1) != 0;
+                if (x0 && x1 || x2 && !x3) column[row >>> 6] |= 1L << row;
+            }
+            List<String> names = new ArrayList<>(IntStream.range(0, inputCount).mapToObj(i -> "x" + i).toList());
+            names.add("f");
+            TableOfValues table = new TableOfValues(inputCount, new long[][] {column}, names);
+
+            assertEquals("(x2 ^ !x3) v (x0 ^ x1)", table.getMinimalDisjunctiveForm(), "Wrong minimal form for " + inputCount + " inputs");
+        }
+        assertEquals("0", new TableOfValues(1, new long[][] {{0b00}}, List.of("a", "f")).getMinimalDisjunctiveForm(), "Wrong constant");
+        assertEquals("1", new TableOfValues(1, new long[][] {{0b11}}, List.of("a", "f")).getMinimalDisjunctiveForm(), "Wrong constant");
+
+        // Bei zu vielen Mintermen wird nicht mehr minimiert
+        int inputCount = LogicMinimizer.QUINE_MCCLUSKEY_MAX_INPUTS + 5;
+        long[] column = new long[(1 << inputCount) >>> 6];
+        Arrays.fill(column, -1L);
+        List<String> names = new ArrayList<>(IntStream.range(0, inputCount).mapToObj(i -> "x" + i).toList());
+        names.add("f");
+        List<Implicant> implicants = new TableOfValues(inputCount, new long[][] {column}, names).getMinimalImplicants(0);
+        assertEquals(1 << inputCount, implicants.size(), "Table with too many minterms should not be minimized");
+        assertEquals(inputCount, implicants.get(0).getLiteralCount(), "Unminimized terms should contain all inputs");
+    }
+
+    // Auswertungen mit BDDs: Anzahl der erfüllenden Belegungen, Tautologien und disjunktive Form
+    @Test public void testCircuitBdd() {
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1), new Point(0, 2));
+        c.setSelectedType(GateType.AND).addGate(new Point(1, 0));
+        c.toggleSelection(new Point(0, 0)).interactWith(new Point(1, 0));
+        c.toggleSelection(new Point(0, 1)).interactWith(new Point(1, 0));
+        c.setSelectedType(GateType.OR).addGates(new Point(2, 0), new Point(2, 2));
+        c.toggleSelection(new Point(1, 0)).interactWith(new Point(2, 0));
+        c.toggleSelection(new Point(0, 2)).interactWith(new Point(2, 0));
+        c.setSelectedType(GateType.NOT).addGates(new Point(2, 1), new Point(1, 2));
+        c.toggleSelection(new Point(1, 0)).interactWith(new Point(2, 1));
+        c.toggleSelection(new Point(0, 2)).interactWith(new Point(1, 2));
+        c.interactWith(new Point(2, 2));
+        c.toggleSelection(new Point(1, 2)).interactWith(new Point(2, 2));
+        c.setSelectedType(GateType.OUTPUT).addGates(new Point(3, 0), new Point(3, 1), new Point(3, 2));
+        c.toggleSelection(new Point(2, 0)).interactWith(new Point(3, 0));
+        c.toggleSelection(new Point(2, 1)).interactWith(new Point(3, 1));
+        c.toggleSelection(new Point(2, 2)).interactWith(new Point(3, 2));
+
+        CircuitBdd bdd = new CircuitBdd(c);
+        assertEquals(Set.of("f1", "f2", "f3"), bdd.getOutputNames(), "Wrong outputs");
+        assertEquals(BigInteger.valueOf(5), bdd.satCount("f1"), "Wrong number of satisfying assignments");
+        assertEquals(BigInteger.valueOf(6), bdd.satCount("f2"), "Wrong number of satisfying assignments");
+        assertFalse(bdd.isConstant("f1"), "f1 is not constant");
+        assertTrue(bdd.isTautology("f3"), "c v !c is a tautology");
+        assertEquals("1", bdd.getDisjunctiveForm("f3"), "Wrong disjunctive form");
+        assertEquals("!a v (a ^ !b)", bdd.getDisjunctiveForm("f2"), "Wrong disjunctive form");
+        assertThrows(IllegalArgumentException.class, () -> bdd.satCount("f4"), "Unknown outputs should not be accepted");
+    }
+
+    // BDDs funktionieren auch bei Schaltungen, deren Wertetabelle zu groß wäre
+    @Test public void testBddWithManyInputs() {
+        c.setSelectedType(GateType.EXCLUSIVE_OR).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.OR).addGate(new Point(1, 1));
+        c.setSelectedType(GateType.OUTPUT).addGates(new Point(2, 0), new Point(2, 1));
+        c.toggleSelection(new Point(1, 0)).interactWith(new Point(2, 0));
+        c.toggleSelection(new Point(1, 1)).interactWith(new Point(2, 1));
+        c.setSelectedType(GateType.INPUT);
+        for (int y = 0; y < 40; y++) {
+            c.addGate(new Point(0, y));
+            c.toggleSelection(new Point(0, y)).interactWith(new Point(1, 0));
+            c.interactWith(new Point(1, 1));
+        }
+
+        CircuitBdd bdd = new CircuitBdd(c);
+        assertEquals(BigInteger.valueOf(40), bdd.satCount("f1"), "Exactly one of 40 inputs should be true");
+        assertEquals(BigInteger.ONE.shiftLeft(40).subtract(BigInteger.ONE), bdd.satCount("f2"), "Wrong number of satisfying assignments");
+
+        // Nicht mehr benötigte Knoten werden bei der Garbage Collection entfernt, die Ausgänge bleiben erhalten
+        BddManager manager = bdd.getManager();
+        for (int i = 0; i < 5000; i++) manager.xor(manager.variable(i % 40), manager.variable((i * 7 + 3) % 40));
+        int nodeCount = manager.getNodeCount();
+        manager.collectGarbage();
+        assertTrue(manager.getNodeCount() < nodeCount, "Unused nodes were not removed");
+        assertEquals(BigInteger.valueOf(40), bdd.satCount("f1"), "Output was changed by garbage collection");
+    }
+
+    // Die Operanden von xor() dürfen nicht entfernt werden, auch wenn sie nicht mit ref() markiert sind
+    @Test public void testBddXorKeepsOperands() {
+        BddManager manager = new BddManager(64);
+        int[] variables = new int[64];
+        for (int i = 0; i < 64; i++) variables[i] = manager.ref(manager.variable(i));
+        // Jede Verknüpfung erzeugt höchstens einen neuen Knoten, bis die nächste Operation eine Garbage Collection auslöst
+        for (int i = 0; manager.getNodeCount() < 1023; i++) manager.ref(manager.or(variables[i / 63], variables[i % 63 + 1]));
+        int f = manager.and(variables[0], variables[1]);
+        int result = manager.xor(f, variables[2]);
+
+        assertEquals(1, manager.getGarbageCollectionCount(), "Garbage collection should have been triggered");
+        assertEquals(0, manager.getVariable(f), "Operand was removed");
+        assertEquals(manager.or(manager.and(f, manager.not(variables[2])), manager.and(manager.not(f), variables[2])), result, "Wrong result");
+    }
+
+    // Äquivalenz von Schaltungen: Ein- und Ausgänge werden über ihre Namen zugeordnet
+    @Test public void testEquivalenceChecking() {
+        // f1 = a ^ b, f2 = !(a v b)
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1));
+        c.setSelectedType(GateType.AND).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.OR).addGate(new Point(1, 1));
+        c.setSelectedType(GateType.NOT).addGate(new Point(2, 1));
+        c.setSelectedType(GateType.OUTPUT).addGates(new Point(3, 0), new Point(3, 1));
+        connect(c, new Point(0, 0), new Point(1, 0), new Point(1, 1));
+        connect(c, new Point(0, 1), new Point(1, 0), new Point(1, 1));
+        connect(c, new Point(1, 1), new Point(2, 1));
+        connect(c, new Point(1, 0), new Point(3, 0));
+        connect(c, new Point(2, 1), new Point(3, 1));
+
+        // f1 = b ^ a, f2 = !a ^ !b
+        LogicCircuit d = new LogicCircuitSimulation();
+        d.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1));
+        d.setSelectedType(GateType.AND).addGates(new Point(1, 0), new Point(2, 1));
+        d.setSelectedType(GateType.NOT).addGates(new Point(1, 1), new Point(1, 2));
+        d.setSelectedType(GateType.OUTPUT).addGates(new Point(3, 0), new Point(3, 1));
+        connect(d, new Point(0, 1), new Point(1, 0), new Point(1, 2));
+        connect(d, new Point(0, 0), new Point(1, 0), new Point(1, 1));
+        connect(d, new Point(1, 1), new Point(2, 1));
+        connect(d, new Point(1, 2), new Point(2, 1));
+        connect(d, new Point(1, 0), new Point(3, 0));
+        connect(d, new Point(2, 1), new Point(3, 1));
+
+        assertTrue(c.checkEquivalence(d).isEquivalent(), "Circuits should be equivalent");
+        assertTrue(c.checkEquivalence(new Point(2, 1), new Point(3, 1)).isEquivalent(), "Gates should be equivalent");
+
+        // f2 = !(a ^ b) ^ !b unterscheidet sich nur für a = 1, b = 0
+        d.toggleSelection(new Point(1, 0)).interactWith(new Point(1, 1));
+        EquivalenceResult result = c.checkEquivalence(d);
+        assertFalse(result.isEquivalent(), "Circuits should not be equivalent");
+        assertEquals(Optional.of("f2"), result.output(), "Wrong output");
+        assertEquals(Set.of("a", "b"), result.counterexample().keySet(), "Counterexample should contain all inputs");
+        assertEquals(Map.of("a", true, "b", false), result.counterexample(), "Wrong counterexample");
+
+        assertFalse(c.checkEquivalence(new Point(3, 0), new Point(3, 1)).isEquivalent(), "Outputs should not be equivalent");
+        d.setSelectedType(GateType.OUTPUT).addGate(new Point(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> c.checkEquivalence(d), "Outputs with different names should not be accepted");
+    }
+
+    // Äquivalenzprüfung bei vielen Eingängen (ein OR-Gatter mit 40 Eingängen gegen eine Kette von OR-Gattern)
+    @Test public void testEquivalenceWithManyInputs() {
+        LogicCircuit d = new LogicCircuitSimulation();
+        c.setSelectedType(GateType.OR).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.OUTPUT).addGate(new Point(2, 0));
+        connect(c, new Point(1, 0), new Point(2, 0));
+        c.setSelectedType(GateType.INPUT);
+        d.setSelectedType(GateType.INPUT);
+        for (int y = 0; y < 40; y++) {
+            c.addGate(new Point(0, y));
+            connect(c, new Point(0, y), new Point(1, 0));
+            d.addGate(new Point(0, y));
+        }
+        d.setSelectedType(GateType.OR);
+        for (int y = 1; y < 40; y++) {
+            d.addGate(new Point(1, y));
+            connect(d, new Point(y == 1 ? 0 : 1, y - 1), new Point(1, y));
+            connect(d, new Point(0, y), new Point(1, y));
+        }
+        d.setSelectedType(GateType.OUTPUT).addGate(new Point(2, 0));
+        connect(d, new Point(1, 39), new Point(2, 0));
+
+        assertTrue(c.checkEquivalence(d).isEquivalent(), "Circuits should be equivalent");
+        d.interactWith(new Point(0, 5)); // Der Wert eines Eingangs spielt für die Äquivalenz keine Rolle
+        assertTrue(d.checkEquivalence(c).isEquivalent(), "Circuits should be equivalent");
+    }
+
+    // Wertetabelle mehrerer Ausgänge in einem Durchlauf
+    @Test public void testOutputTableOfValues() {
+        assertTrue(c.getOutputTableOfValues().isEmpty(), "Table of values should be empty");
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1));
+        c.setSelectedType(GateType.AND).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.OR).addGate(new Point(1, 1));
+        c.setSelectedType(GateType.OUTPUT).addGates(new Point(2, 1), new Point(2, 0));
+        connect(c, new Point(0, 0), new Point(1, 0), new Point(1, 1));
+        connect(c, new Point(0, 1), new Point(1, 0), new Point(1, 1));
+        connect(c, new Point(1, 1), new Point(2, 1));
+        connect(c, new Point(1, 0), new Point(2, 0));
+
+        TableOfValues table = c.getOutputTableOfValues().orElseThrow();
+        assertEquals(new TableOfValues(2, new long[][] {{0b1110}, {0b1000}}, List.of("a", "b", "f1", "f2")), table, "Wrong table of values");
+        assertEquals("""
+                a | b | f1 | f2
+                ---------------
+                0 | 0 | 0 | 0
+                0 | 1 | 1 | 0
+                1 | 0 | 1 | 0
+                1 | 1 | 1 | 1
+
+                DNF (minimiert):
+                f1 = b v a
+                f2 = (a ^ b)""", table.toString(), "Wrong string representation");
+
+        // Auch beliebige Gatter können gemeinsam tabelliert werden
+        table = c.getTableOfValues(List.of(new Point(1, 0), new Point(2, 1))).orElseThrow();
+        assertEquals(List.of("a", "b", "a ^ b", "f1"), table.names(), "Wrong names");
+        assertEquals("(!a ^ b) v (a ^ !b) v (a ^ b)", table.getDisjunctiveNormalForm(1), "Wrong disjunctive normal form");
+    }
+
+    // Arduino-Sketch: Es wird die Variante mit dem kleinsten Programm ausgewählt
+    @Test public void testArduinoCodeGeneration() {
+        // f1 = !(a ^ b) v c
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1), new Point(0, 2));
+        c.setSelectedType(GateType.AND).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.NOT).addGate(new Point(2, 0));
+        c.setSelectedType(GateType.OR).addGate(new Point(3, 0));
+        c.setSelectedType(GateType.OUTPUT).addGate(new Point(4, 0));
+        connect(c, new Point(0, 0), new Point(1, 0));
+        connect(c, new Point(0, 1), new Point(1, 0));
+        connect(c, new Point(1, 0), new Point(2, 0));
+        connect(c, new Point(2, 0), new Point(3, 0));
+        connect(c, new Point(0, 2), new Point(3, 0));
+        connect(c, new Point(3, 0), new Point(4, 0));
+
+        ArduinoSketch sketch = new ArduinoSketch(c, new Point(4, 0), Path.of("sketch.ino"));
+        assertEquals("outputStates[0] = (!inputStates[0]) || (!inputStates[1]) || (inputStates[2]);",
+                sketch.generateCode(CodeStrategy.DISJUNCTIVE_FORM).orElseThrow().statements(), "Wrong disjunctive form");
+        assertEquals("""
+                bool gate0 = inputStates[0] && inputStates[1];
+                  bool gate1 = !gate0;
+                  bool gate2 = gate1 || inputStates[2];
+                  bool gate3 = gate2;
+                  outputStates[0] = gate3;""", sketch.generateCode(CodeStrategy.NETLIST).orElseThrow().statements(), "Wrong netlist");
+        assertEquals("const uint8_t truthTable[outputCount][1] PROGMEM = {\n  {0xBF}\n};",
+                sketch.generateCode(CodeStrategy.LOOKUP_TABLE).orElseThrow().declarations(), "Wrong lookup table");
+
+        assertEquals(CodeStrategy.DISJUNCTIVE_FORM, sketch.selectCode().strategy(), "Wrong code strategy");
+
+        // Mit 10 Eingängen sind alle Pins belegt, die kleinste Variante wird trotzdem ausgewählt
+        c.setSelectedType(GateType.INPUT);
+        for (int y = 3; y < 10; y++) {
+            c.addGate(new Point(0, y));
+            connect(c, new Point(0, y), new Point(3, 0));
+        }
+        int selectedSize = sketch.selectCode().estimatedSize();
+        for (CodeStrategy strategy : CodeStrategy.values()) {
+            assertTrue(selectedSize <= sketch.generateCode(strategy).orElseThrow().estimatedSize(), "Selected code is not the smallest");
+        }
+
+        // Für einen weiteren Eingang ist kein Pin mehr frei
+        c.addGate(new Point(0, 10));
+        connect(c, new Point(0, 10), new Point(3, 0));
+        assertThrows(IllegalArgumentException.class, sketch::selectCode, "Too many inputs did not cause an exception");
+        assertThrows(IllegalArgumentException.class, sketch::getSourceCode, "Too many inputs did not cause an exception");
+    }
+
+    // Ein Sketch für mehrere Ausgänge: Gemeinsame Gatter werden nur einmal berechnet, jeder Ausgang hat einen eigenen Pin
+    @Test public void testMultiOutputArduinoSketch() throws IOException {
+        c.setSelectedType(GateType.INPUT).addGates(new Point(0, 0), new Point(0, 1));
+        c.setSelectedType(GateType.AND).addGate(new Point(1, 0));
+        c.setSelectedType(GateType.NOT).addGate(new Point(2, 1));
+        c.setSelectedType(GateType.OUTPUT).addGates(new Point(3, 0), new Point(3, 1));
+        connect(c, new Point(0, 0), new Point(1, 0));
+        connect(c, new Point(0, 1), new Point(1, 0));
+        connect(c, new Point(1, 0), new Point(3, 0), new Point(2, 1));
+        connect(c, new Point(2, 1), new Point(3, 1));
+
+        ArduinoSketch sketch = ArduinoSketch.forAllOutputs(c, Path.of("sketch.ino"));
+        assertEquals("""
+                bool gate0 = inputStates[0] && inputStates[1];
+                  bool gate1 = gate0;
+                  bool gate2 = !gate0;
+                  bool gate3 = gate2;
+                  outputStates[0] = gate1;
+                  outputStates[1] = gate3;""", sketch.generateCode(CodeStrategy.NETLIST).orElseThrow().statements(), "Wrong netlist");
+
+        String sourceCode = sketch.getSourceCode();
+        assertTrue(sourceCode.contains("const int inputPins[inputCount] = {2, 3};"), "Wrong input pins");
+        assertTrue(sourceCode.contains("const int outputPins[outputCount] = {12, 11};"), "Wrong output pins");
+        assertTrue(sourceCode.contains("outputStates[1] = "), "Second output is missing");
+    }
+
+    // Schaltung aus dem Textformat lesen (die Reihenfolge der Zeilen spielt keine Rolle)
+    @Test public void testReadTextCircuit() throws IOException {
+        LogicCircuit circuit = TextCircuitFormat.read(new StringReader("""
+                # f1 = x ^ !y
+                OUTPUT 3,0 f1 <- 2,0
+                AND 2,0 <- 0,0 1,1
+                INPUT 0,0 x
+                INPUT 0,1 y
+                NOT 1,1 <- 0,1
+                """));
+        assertEquals(5, circuit.getGatePositions().size(), "Wrong number of gates");
+        assertEquals("f1 = x ^ (!y)", circuit.getBooleanFunctions().orElseThrow(), "Wrong boolean function");
+
+        IOException e = assertThrows(IOException.class, () -> TextCircuitFormat.read(new StringReader("INPUT 0,0 a\nNAND 1,0 <- 0,0")));
+        assertEquals("line 2: unknown gate type 'NAND'", e.getMessage(), "Wrong error message");
+        assertThrows(IOException.class, () -> TextCircuitFormat.read(new StringReader("NOT 0,0 <- 1,0\nNOT 1,0 <- 0,0")), "Loops should not be accepted");
+    }
+
+    // Speichern und Laden im Text- und im Binärformat (Namen, Werte der Eingänge und Verbindungen bleiben erhalten)
+    @Test public void testSaveAndLoadCircuit() throws IOException {
+        c.addGate(new Point(0, 0), GateType.INPUT, "x");
+        c.addGate(new Point(0, -3), GateType.INPUT, "y");
+        c.addGate(new Point(-200, 1), GateType.NOT);
+        c.addGate(new Point(1, 0), GateType.EXCLUSIVE_OR);
+        c.addGate(new Point(2, 0), GateType.OUTPUT, "f1");
+        connect(c, new Point(0, -3), new Point(-200, 1));
+        connect(c, new Point(0, 0), new Point(1, 0));
+        connect(c, new Point(-200, 1), new Point(1, 0));
+        connect(c, new Point(1, 0), new Point(2, 0));
+        c.interactWith(new Point(0, 0));
+
+        for (String extension : List.of(".txt", CircuitFiles.BINARY_EXTENSION)) {
+            Path path = Files.createTempFile("circuit", extension);
+            try {
+                CircuitFiles.save(c, path);
+                LogicCircuit loaded = CircuitFiles.load(path);
+                assertEquals(c.getGatePositions(), loaded.getGatePositions(), "Wrong gate positions (" + extension + ")");
+                for (Point pos : c.getGatePositions()) {
+                    assertEquals(c.getGateAt(pos).getType(), loaded.getGateAt(pos).getType(), "Wrong gate type (" + extension + ")");
+                    assertEquals(c.getGateAt(pos).getInputs(), loaded.getGateAt(pos).getInputs(), "Wrong inputs (" + extension + ")");
+                    assertEquals(c.getOutputAt(pos), loaded.getOutputAt(pos), "Wrong output (" + extension + ")");
+                }
+                assertEquals(c.getBooleanFunctions(), loaded.getBooleanFunctions(), "Wrong boolean functions (" + extension + ")");
+            } finally {
+                Files.delete(path);
+            }
+        }
+
+        Path path = Files.createTempFile("circuit", CircuitFiles.BINARY_EXTENSION);
+        try {
+            Files.write(path, new byte[] {'L', 'C', 'S', 1, 5, 0});
+            assertThrows(IOException.class, () -> CircuitFiles.load(path), "Truncated files should not be accepted");
+
+            // Negative und zu große Anzahl der Gatter, negative Länge eines Namens und negative Nummer eines Eingangs
+            byte f = (byte) 0xFF;
+            List<byte[]> corruptFiles = List.of(
+                    new byte[] {'L', 'C', 'S', 1, f, f, f, f, 0x0F},
+                    new byte[] {'L', 'C', 'S', 1, f, f, f, f, 0x07},
+                    new byte[] {'L', 'C', 'S', 1, 1, 4, 0, 0, f, f, f, f, 0x0F},
+                    new byte[] {'L', 'C', 'S', 1, 2, 4, 0, 0, 1, 'a', 0, 0, 3, 2, 0, 1, f, f, f, f, 0x0F});
+            for (byte[] content : corruptFiles) {
+                Files.write(path, content);
+                assertThrows(IOException.class, () -> CircuitFiles.load(path), "Corrupt files should not be accepted");
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    // Import von Netzlisten: ISCAS-Schaltung c17 (nur NAND-Gatter) und XOR-Gatter mit drei Eingängen (Parität)
+    @Test public void testImportNetlists() throws IOException {
+        LogicCircuit bench = BenchFormat.read(new StringReader("""
+                # c17
+                INPUT(1)
+                INPUT(2)
+                INPUT(3)
+                INPUT(6)
+                INPUT(7)
+                OUTPUT(22)
+                OUTPUT(23)
+                10 = NAND(1, 3)
+                11 = NAND(3, 6)
+                16 = NAND(2, 11)
+                19 = NAND(11, 7)
+                22 = NAND(10, 16)
+                23 = NAND(16, 19)
+                OUTPUT(p)
+                INPUT(a)
+                p = XOR(a, 1, 2)
+                """));
+        LogicCircuit blif = BlifFormat.read(new StringReader("""
+                .model c17
+                .inputs 1 2 3 6 \\
+                 7 a
+                .outputs 22 23 p
+                .names 10 16 22
+                0- 1
+                -0 1
+                .names 2 11 16
+                11 0
+                .names 3 6 11
+                11 0
+                .names 1 3 10
+                11 0
+                .names 16 19 23
+                11 0
+                .names 11 7 19
+                0- 1
+                -0 1
+                .names a 1 2 p
+                100 1
+                010 1
+                001 1
+                111 1
+                .end
+                """));
+        assertTrue(bench.checkEquivalence(blif).isEquivalent(), "Imported circuits should be equivalent");
+        assertEquals(3, bench.getGatePositions().stream().filter(pos -> bench.getGateAt(pos).getType() == GateType.OUTPUT).count(), "Wrong number of outputs");
+        // Jedes Gatter steht rechts von seinen Eingängen
+        for (Point pos : blif.getGatePositions()) {
+            assertTrue(blif.getGateAt(pos).getInputs().stream().allMatch(input -> input.x() < pos.x()), "Wrong layout");
+        }
+
+        IOException e = assertThrows(IOException.class, () -> BenchFormat.read(new StringReader("INPUT(a)\nOUTPUT(q)\nq = DFF(a)")));
+        assertEquals("line 3: sequential elements are not supported", e.getMessage(), "Wrong error message");
+        assertThrows(IOException.class, () -> BenchFormat.read(new StringReader("OUTPUT(x)\nx = AND(y)\ny = NOT(x)")), "Loops should not be accepted");
+        assertThrows(IOException.class, () -> BlifFormat.read(new StringReader(".outputs x\n.names y x\n1 1\n")), "Undefined signals should not be accepted");
+    }
+
+    // Simulation ohne Oberfläche: Belegungen werden als Datenstrom gelesen und blockweise (64 Zeilen) berechnet
+    @Test public void testBatchSimulator() throws IOException {
+        c.addGate(new Point(0, 0), GateType.INPUT, "x");
+        c.addGate(new Point(0, 1), GateType.INPUT, "y");
+        c.addGate(new Point(0, 2), GateType.INPUT, "z");
+        c.addGate(new Point(1, 0), GateType.EXCLUSIVE_OR);
+        c.addGate(new Point(1, 1), GateType.AND);
+        c.addGate(new Point(2, 0), GateType.OUTPUT, "sum");
+        c.addGate(new Point(2, 1), GateType.OUTPUT, "carry");
+        for (Point input : List.of(new Point(0, 0), new Point(0, 1))) {
+            assertTrue(c.connect(input, new Point(1, 0)) && c.connect(input, new Point(1, 1)), "Connection failed");
+        }
+        assertTrue(c.connect(new Point(1, 0), new Point(2, 0)) && c.connect(new Point(1, 1), new Point(2, 1)), "Connection failed");
+        assertFalse(c.connect(new Point(2, 0), new Point(1, 1)), "Outputs must not be used as inputs");
+
+        // z hat keine Spalte und wird nicht verwendet, die Eingabe enthält Kommentare und verschiedene Trennzeichen
+        StringBuilder input = new StringBuilder("# Halbaddierer\ny, x\n");
+        StringBuilder expected = new StringBuilder("carry sum\n");
+        for (int i = 0; i < 100; i++) {
+            boolean x = i % 2 == 1, y = i % 3 == 0;
+            input.append(y ? '1' : '0').append(i % 5 == 0 ? "" : ", ").append(x ? '1' : '0').append(i % 7 == 0 ? "\r\n" : "\n");
+            expected.append(x && y ? '1' : '0').append(' ').append(x != y ? '1' : '0').append('\n');
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = new BatchSimulator(c).run(Channels.newChannel(new ByteArrayInputStream(input.toString().getBytes())), Channels.newChannel(output));
+        assertEquals(100, count, "Wrong number of input vectors");
+        assertEquals(expected.toString(), output.toString(), "Wrong output values");
+
+        IOException e = assertThrows(IOException.class, () -> new BatchSimulator(c).run(
+                Channels.newChannel(new ByteArrayInputStream("x y\n1 0\n1\n".getBytes())), Channels.newChannel(new ByteArrayOutputStream())));
+        assertEquals("line 3: too few values", e.getMessage(), "Wrong error message");
+    }
+
+    // Erzeugte Schaltungen: Addierer, Multiplizierer und Paritätsbaum berechnen das Richtige, zufällige Schaltungen
+    // halten die Grenzen für Fan-in und Fan-out ein und sind bei gleichem Startwert gleich
+    @Test public void testCircuitGenerator() {
+        assertTrue(CircuitGenerator.rippleCarryAdder(7).checkEquivalence(CircuitGenerator.carryLookaheadAdder(7)).isEquivalent(), "Adders should be equivalent");
+
+        TableOfValues product = CircuitGenerator.arrayMultiplier(3).getOutputTableOfValues().orElseThrow();
+        assertEquals(List.of("a0", "a1", "a2", "b0", "b1", "b2", "p0", "p1", "p2", "p3", "p4", "p5"), product.names(), "Wrong names");
+        for (long row = 0; row < product.getRowCount(); row++) {
+            int a = 0, b = 0, p = 0;
+            for (int bit = 0; bit < 3; bit++) {
+                if (product.getInput(row, bit)) a |= 1 << bit;
+                if (product.getInput(row, 3 + bit)) b |= 1 << bit;
+            }
+            for (int bit = 0; bit < 6; bit++) {
+                if (product.getOutput(row, bit)) p |= 1 << bit;
+            }
+            assertEquals(a * b, p, "Wrong product in row " + row);
+        }
+
+        TableOfValues parity = CircuitGenerator.parityTree(5).getOutputTableOfValues().orElseThrow();
+        for (long row = 0; row < parity.getRowCount(); row++) {
+            assertEquals(Long.bitCount(row) % 2 == 1, parity.getOutput(row, 0), "Wrong parity in row " + row);
+        }
+
+        LogicCircuit wideGate = CircuitGenerator.wideGate(GateType.OR, 100000);
+        Point wideGatePos = wideGate.getGatePositions().stream().filter(pos -> wideGate.getGateAt(pos).getType() == GateType.OR).findFirst().orElseThrow();
+        assertEquals(100000, wideGate.getGateAt(wideGatePos).getInputs().size(), "Wrong number of inputs");
+        assertFalse(wideGate.getOutputAt(wideGatePos), "Wrong output");
+
+        LogicCircuit random = CircuitGenerator.randomDag(2000, 10, 4, 3, 7);
+        for (Point pos : random.getGatePositions()) {
+            GateType type = random.getGateAt(pos).getType();
+            assertTrue(random.getGateAt(pos).getInputs().size() <= 4, "Fan-in is too large");
+            if (type != GateType.INPUT) {
+                assertTrue(random.getFanOut(pos).size() <= 3, "Fan-out is too large");
+            }
+        }
+        assertEquals(random.getBooleanFunctions(), CircuitGenerator.randomDag(2000, 10, 4, 3, 7).getBooleanFunctions(), "Same seed should give the same circuit");
+        assertThrows(IllegalArgumentException.class, () -> CircuitGenerator.chain(0));
+    }
+
+    // Räumlicher Index: Abfragen liefern dieselben Gatter und Verbindungen wie das Durchsuchen der ganzen Schaltung,
+    // auch nach dem Entfernen von Gattern und dem Ersetzen von Verbindungen
+    @Test public void testSpatialIndex() {
+        LogicCircuit circuit = CircuitGenerator.randomDag(3000, 40, 3, 3, 11);
+        Point removed = circuit.getGatePositions().stream().filter(pos -> circuit.getGateAt(pos).getType() == GateType.AND)
+                .min(Comparator.comparingInt(Point::x).thenComparingInt(Point::y)).orElseThrow();
+        circuit.toggleSelection(removed).removeSelectedGate();
+        Point output = circuit.getGatePositions().stream().filter(pos -> circuit.getGateAt(pos).getType() == GateType.OUTPUT).findFirst().orElseThrow();
+        assertTrue(circuit.connect(new Point(0, 0), output), "Connection failed");
+
+        List<Point[]> rectangles = List.of(new Point[] {new Point(0, 0), new Point(10, 10)}, new Point[] {new Point(-5, 20), new Point(3, 400)},
+                new Point[] {new Point(5, -100), new Point(40, 100)}, new Point[] {new Point(-1000, -1000), new Point(1000, 10000)});
+        for (Point[] rectangle : rectangles) {
+            Point min = rectangle[0], max = rectangle[1];
+            Set<Point> expectedGates = circuit.getGatePositions().stream()
+                    .filter(pos -> pos.x() >= min.x() && pos.x() <= max.x() && pos.y() >= min.y() && pos.y() <= max.y()).collect(Collectors.toSet());
+            assertEquals(expectedGates, Set.copyOf(circuit.getGatePositionsIn(min, max)), "Wrong gates");
+
+            Set<Connection> expectedConnections = circuit.getGatePositions().stream()
+                    .flatMap(pos -> circuit.getGateAt(pos).getInputs().stream().map(input -> new Connection(input, pos)))
+                    .filter(c -> Math.max(c.from().x(), c.to().x()) >= min.x() && Math.min(c.from().x(), c.to().x()) <= max.x()
+                            && Math.max(c.from().y(), c.to().y()) >= min.y() && Math.min(c.from().y(), c.to().y()) <= max.y())
+                    .collect(Collectors.toSet());
+            List<Connection> connections = circuit.getConnectionsIn(min, max);
+            assertEquals(expectedConnections, Set.copyOf(connections), "Wrong connections");
+            assertEquals(expectedConnections.size(), connections.size(), "Connections should not be repeated");
+        }
+    }
+
+    // Ereignisse und Version bei Änderungen, zwischengespeicherte Formeln und Wertetabellen
+    @Test public void testChangeNotifications() {
+        LogicCircuit circuit = new LogicCircuitSimulation();
+        List<String> events = new ArrayList<>();
+        circuit.addListener(new CircuitListener() {
+            @Override public void gateAdded(Point pos) { events.add("added " + pos); }
+            @Override public void gateRemoved(Point pos) { events.add("removed " + pos); }
+            @Override public void connected(Point from, Point to) { events.add("connected " + from + " " + to); }
+            @Override public void inputToggled(Point pos) { events.add("toggled " + pos); }
+            @Override public void selectionChanged(Point pos) { events.add("selected " + pos); }
+        });
+
+        Point a = new Point(0, 0), b = new Point(0, 1), and = new Point(1, 0), output = new Point(2, 0);
+        circuit.addGate(a, GateType.INPUT);
+        circuit.addGate(b, GateType.INPUT);
+        circuit.addGate(and, GateType.AND);
+        circuit.addGate(output, GateType.OUTPUT);
+        assertFalse(circuit.addGate(a, GateType.INPUT), "Position should be used");
+        assertTrue(circuit.connect(List.of(a, b), and), "Connection failed");
+        assertTrue(circuit.connect(and, output), "Connection failed");
+        assertEquals(List.of("added " + a, "added " + b, "added " + and, "added " + output, "connected " + a + " " + and,
+                "connected " + b + " " + and, "connected " + and + " " + output), events, "Wrong events");
+        assertEquals(6, circuit.getVersion(), "Every change should increase the version");
+
+        // Die Formeln hängen nicht von den Werten der Eingänge ab
+        String functions = circuit.getBooleanFunctions().orElseThrow();
+        events.clear();
+        assertTrue(circuit.interactWith(a), "Input should be toggled");
+        assertEquals(List.of("toggled " + a), events, "Wrong events");
+        assertEquals(7, circuit.getVersion(), "Toggling an input should increase the version");
+        assertSame(functions, circuit.getBooleanFunctions().orElseThrow(), "Functions should be cached");
+
+        assertFalse(circuit.hasTableOfValues(), "No gate is selected");
+        circuit.toggleSelection(and);
+        assertEquals(7, circuit.getVersion(), "The selection is not part of the version");
+        assertTrue(circuit.hasTableOfValues(), "Selected gate has a table of values");
+        TableOfValues table = circuit.getTableOfValues().orElseThrow();
+        assertSame(table, circuit.getTableOfValues().orElseThrow(), "Table should be cached");
+        circuit.toggleSelection(output);
+        assertNotEquals(table.toString(), circuit.getTableOfValues().orElseThrow().toString(), "Table should belong to the selected gate");
+        TableOfValues outputTable = circuit.getOutputTableOfValues().orElseThrow();
+
+        // Neue Verbindungen verwerfen die gespeicherten Ergebnisse
+        Point not = new Point(1, 1);
+        circuit.addGate(not, GateType.NOT);
+        assertTrue(circuit.connect(a, not), "Connection failed");
+        assertTrue(circuit.connect(not, output), "Connection failed");
+        assertNotEquals(functions, circuit.getBooleanFunctions().orElseThrow(), "Functions should be recomputed");
+        assertNotSame(outputTable, circuit.getOutputTableOfValues().orElseThrow(), "Table should be recomputed");
+        assertEquals(new LogicCircuitSimulation().getBooleanFunctions(), Optional.empty(), "Empty circuit has no functions");
+
+        events.clear();
+        circuit.toggleSelection(a).removeSelectedGate();
+        assertEquals(List.of("selected " + a, "removed " + a, "selected null"), events, "Wrong events");
+        assertFalse(circuit.hasTableOfValues(), "No gate is selected");
+        circuit.toggleSelection(not);
+        assertEquals(circuit.getTableOfValues().isPresent(), circuit.hasTableOfValues(), "Wrong prediction");
+
+        // Ohne Eingänge gibt es keine Wertetabelle
+        LogicCircuit withoutInputs = new LogicCircuitSimulation();
+        withoutInputs.addGate(and, GateType.AND);
+        withoutInputs.toggleSelection(and);
+        assertFalse(withoutInputs.hasTableOfValues(), "Circuit without inputs has no table of values");
+        assertTrue(withoutInputs.getTableOfValues().isEmpty(), "Circuit without inputs has no table of values");
+    }
+
+    // Gatter werden direkt verändert (nur über die Schaltung), bereits gelieferte Listen der Eingänge bleiben dabei unverändert
+    @Test public void testGatesAreEditedInPlace() {
+        Point a = new Point(0, 0), b = new Point(0, 1), x = new Point(0, 2), or = new Point(1, 0), not = new Point(1, 1);
+        c.addGate(a, GateType.INPUT);
+        c.addGate(b, GateType.INPUT);
+        c.addGate(x, GateType.INPUT);
+        c.addGate(or, GateType.OR);
+        c.addGate(not, GateType.NOT);
+        Gate input = c.getGateAt(a), orGate = c.getGateAt(or), notGate = c.getGateAt(not);
+
+        assertTrue(c.interactWith(a), "Input should be toggled");
+        assertSame(input, c.getGateAt(a), "Input should be changed in place");
+        assertTrue(input.getOutput(), "Input should be true");
+
+        assertTrue(c.connect(a, or), "Connection failed");
+        List<Point> inputs = orGate.getInputs();
+        assertTrue(c.connect(List.of(b, x, b), or), "Connection failed");
+        assertSame(orGate, c.getGateAt(or), "Gate should be changed in place");
+        assertEquals(List.of(a), inputs, "Earlier inputs should not change");
+        assertEquals(List.of(a, b, x, b), orGate.getInputs(), "Wrong inputs");
+        assertThrows(UnsupportedOperationException.class, () -> orGate.getInputs().add(a), "Inputs should be immutable");
+        assertFalse(orGate instanceof EditableGate, "Gates should only be changed through the circuit");
+
+        // Viele Eingänge (das Feld wird mehrfach vergrößert)
+        List<Point> manyInputs = IntStream.range(3, 200).mapToObj(y -> new Point(0, y)).toList();
+        manyInputs.forEach(pos -> c.addGate(pos, GateType.INPUT));
+        inputs = orGate.getInputs();
+        for (Point pos : manyInputs) assertTrue(c.connect(pos, or), "Connection failed");
+        assertEquals(4, inputs.size(), "Earlier inputs should not change");
+        assertEquals(201, orGate.getInputs().size(), "Wrong number of inputs");
+        assertEquals(manyInputs.get(196), orGate.getInputs().get(200), "Wrong input");
+
+        assertTrue(c.connect(a, not), "Connection failed");
+        assertTrue(c.connect(b, not), "Connection failed");
+        assertSame(notGate, c.getGateAt(not), "Gate should be changed in place");
+        assertEquals(List.of(b), notGate.getInputs(), "Connection should be replaced");
+
+        inputs = orGate.getInputs();
+        c.toggleSelection(b).removeSelectedGate();
+        assertEquals(201, inputs.size(), "Earlier inputs should not change");
+        assertEquals(199, orGate.getInputs().size(), "Both connections should be removed");
+        assertFalse(orGate.getInputs().contains(b), "Removed gate should not be an input");
+        assertEquals(List.of(), notGate.getInputs(), "Connection should be removed");
+        assertTrue(c.getOutputAt(or), "Or gate should be true");
+        assertTrue(c.getOutputAt(not), "Not gate without input should be true");
+    }
+
+    // Gatter an zufälligen (auch negativen und sehr großen) Positionen hinzufügen und wieder entfernen
+    @Test public void testSparseGateStorage() {
+        Random random = new Random(7);
+        Map<Point, GateType> expected = new HashMap<>();
+        GateType[] types = {GateType.AND, GateType.OR, GateType.EXCLUSIVE_OR, GateType.NOT};
+        List<Point> positions = new ArrayList<>(List.of(new Point(Integer.MIN_VALUE, Integer.MIN_VALUE),
+                new Point(Integer.MAX_VALUE, Integer.MAX_VALUE), new Point(Integer.MIN_VALUE, Integer.MAX_VALUE), new Point(-1, -1), new Point(0, 0)));
+        for (int i = 0; i < 3000; i++) {
+            // Meist dicht beieinander, manchmal weit verstreut
+            positions.add(i % 10 == 0 ? new Point(random.nextInt(), random.nextInt()) : new Point(random.nextInt(100) - 50, random.nextInt(100) - 50));
+        }
+        for (Point pos : positions) {
+            GateType type = types[random.nextInt(types.length)];
+            assertEquals(!expected.containsKey(pos), c.addGate(pos, type), "Wrong result for " + pos);
+            expected.putIfAbsent(pos, type);
+        }
+        List<Point> removed = new ArrayList<>(expected.keySet());
+        Collections.shuffle(removed, random);
+        for (Point pos : removed.subList(0, removed.size() / 2)) {
+            c.toggleSelection(pos).removeSelectedGate();
+            expected.remove(pos);
+        }
+
+        assertEquals(expected.keySet(), c.getGatePositions(), "Wrong positions");
+        for (Point pos : positions) {
+            assertEquals(expected.get(pos), Optional.ofNullable(c.getGateAt(pos)).map(Gate::getType).orElse(null), "Wrong gate at " + pos);
+        }
+        Point min = new Point(-20, -30), max = new Point(35, 7);
+        Set<Point> inRectangle = expected.keySet().stream()
+                .filter(pos -> pos.x() >= min.x() && pos.x() <= max.x() && pos.y() >= min.y() && pos.y() <= max.y()).collect(Collectors.toSet());
+        assertEquals(inRectangle, Set.copyOf(c.getGatePositionsIn(min, max)), "Wrong gates in rectangle");
+        Point corner = new Point(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(expected.containsKey(corner) ? List.of(corner) : List.of(), c.getGatePositionsIn(corner, corner), "Wrong gates in corner");
+        assertEquals(expected.keySet(), Set.copyOf(c.getGatePositionsIn(new Point(Integer.MIN_VALUE, Integer.MIN_VALUE), corner)), "Wrong gates in whole grid");
+    }
+
+    // Verbindet das Gatter an der Position "from" mit den Gattern an den Positionen "to"
+    private static void connect(LogicCircuit circuit, Point from, Point... to) {
+        for (Point pos : to) {
+            if (!circuit.isSelected(from)) circuit.toggleSelection(from);
+            assertTrue(circuit.interactWith(pos), "Connection failed");
+        }
     }
 }
@@ -0,0 +1,46 @@
+package logicsimulator.benchmark;
+
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.GateType;
+import logicsimulator.generator.CircuitGenerator;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Schaltungen für die Benchmarks, deren Größe über "size" festgelegt wird (erzeugt mit CircuitGenerator)
+public final class BenchmarkCircuits {
+    public enum Shape {
+        // Kette aus "size" Gattern
+        CHAIN,
+        // Paritätsbaum über "size" Eingängen
+        TREE,
+        // Ripple-Carry-Addierer für zwei Zahlen mit "size" Bits
+        ADDER,
+        // Zufälliger azyklischer Graph aus "size" Gattern (mit festem Startwert, also reproduzierbar)
+        RANDOM
+    }
+
+    // Ein- und Ausgänge nach Spalte und Zeile sortiert (der letzte Ausgang liegt also am weitesten rechts)
+    public record BenchmarkCircuit(LogicCircuit circuit, List<Point> inputs, List<Point> outputs) {}
+
+    private static final int RANDOM_INPUT_COUNT = 16, RANDOM_MAX_FAN_IN = 3, RANDOM_MAX_FAN_OUT = 4;
+    private static final long RANDOM_SEED = 42;
+
+    private BenchmarkCircuits() {}
+
+    public static BenchmarkCircuit create(Shape shape, int size) {
+        LogicCircuit circuit = switch (shape) {
+            case CHAIN -> CircuitGenerator.chain(size);
+            case TREE -> CircuitGenerator.parityTree(size);
+            case ADDER -> CircuitGenerator.rippleCarryAdder(size);
+            case RANDOM -> CircuitGenerator.randomDag(size, RANDOM_INPUT_COUNT, RANDOM_MAX_FAN_IN, RANDOM_MAX_FAN_OUT, RANDOM_SEED);
+        };
+        return new BenchmarkCircuit(circuit, getPositions(circuit, GateType.INPUT), getPositions(circuit, GateType.OUTPUT));
+    }
+
+    private static List<Point> getPositions(LogicCircuit circuit, GateType type) {
+        return circuit.getGatePositions().stream().filter(pos -> circuit.getGateAt(pos).getType() == type)
+                .sorted(Comparator.comparingInt(Point::x).thenComparingInt(Point::y)).toList();
+    }
+}
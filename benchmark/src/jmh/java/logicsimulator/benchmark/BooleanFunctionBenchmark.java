@@ -0,0 +1,48 @@
+package logicsimulator.benchmark;
+
+import logicsimulator.benchmark.BenchmarkCircuits.BenchmarkCircuit;
+import logicsimulator.benchmark.BenchmarkCircuits.Shape;
+import logicsimulator.core.Point;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Darstellung aller Ausgänge als boolesche Funktionen
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BooleanFunctionBenchmark {
+    @Param({"CHAIN", "TREE", "ADDER", "RANDOM"})
+    public Shape shape;
+
+    // Die Formeln wachsen mit der Tiefe der Schaltung schnell an, daher nur kleine Schaltungen
+    @Param({"16", "64"})
+    public int size;
+
+    private BenchmarkCircuit circuit;
+    private Point output, source;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.create(shape, size);
+        output = circuit.outputs().get(circuit.outputs().size() - 1);
+        source = circuit.circuit().getGateAt(output).getInputs().get(0);
+    }
+
+    // Die Verbindung des letzten Ausgangs wird jedes Mal neu hergestellt (an dieselbe Stelle), damit die Formeln nicht
+    // aus dem Zwischenspeicher kommen
+    @Benchmark
+    public String getBooleanFunctions() {
+        circuit.circuit().connect(source, output);
+        return circuit.circuit().getBooleanFunctions().orElseThrow();
+    }
+
+    // Unveränderte Schaltung (wie beim Zeichnen jedes Bildes)
+    @Benchmark
+    public String getCachedBooleanFunctions() {
+        return circuit.circuit().getBooleanFunctions().orElseThrow();
+    }
+}
@@ -0,0 +1,63 @@
+package logicsimulator.benchmark;
+
+import logicsimulator.benchmark.BenchmarkCircuits.BenchmarkCircuit;
+import logicsimulator.benchmark.BenchmarkCircuits.Shape;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.GateType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Prüfung neuer Verbindungen (Schleifen, Anpassung der topologischen Reihenfolge)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionBenchmark {
+    @Param({"CHAIN", "TREE", "ADDER", "RANDOM"})
+    public Shape shape;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private BenchmarkCircuit circuit;
+    private Point firstGate, lastGate, output;
+    private Point[] outputSources;
+    private int nextSource;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.create(shape, size);
+        output = circuit.outputs().get(circuit.outputs().size() - 1);
+        lastGate = circuit.circuit().getGateAt(output).getInputs().get(0);
+        // Das erste Gatter auf dem längsten Pfad, der über Gatter (nicht Eingänge) zu "lastGate" führt
+        // (die Spalte eines Gatters entspricht seiner Tiefe)
+        firstGate = lastGate;
+        Optional<Point> previous;
+        while ((previous = circuit.circuit().getGateAt(firstGate).getInputs().stream()
+                .filter(pos -> circuit.circuit().getGateAt(pos).getType() != GateType.INPUT)
+                .max(Comparator.comparingInt(Point::x))).isPresent()) {
+            firstGate = previous.get();
+        }
+        outputSources = new Point[] {lastGate, circuit.inputs().get(0)};
+    }
+
+    // Vom Gatter vor dem letzten Ausgang zu einem Gatter, von dem es abhängt: Die Suche muss alle Gatter untersuchen,
+    // die in der topologischen Reihenfolge dazwischen liegen, bevor die Verbindung abgelehnt wird
+    // (die Schaltung bleibt also unverändert)
+    @Benchmark
+    public boolean connectBackwards() {
+        return circuit.circuit().connect(lastGate, firstGate);
+    }
+
+    // Der Eingang des Ausgangs wird abwechselnd mit zwei Gattern verbunden (die alte Verbindung wird dabei ersetzt)
+    @Benchmark
+    public boolean reconnectOutput() {
+        nextSource ^= 1;
+        return circuit.circuit().connect(outputSources[nextSource], output);
+    }
+}
@@ -0,0 +1,56 @@
+package logicsimulator.benchmark;
+
+import logicsimulator.benchmark.BenchmarkCircuits.BenchmarkCircuit;
+import logicsimulator.benchmark.BenchmarkCircuits.Shape;
+import logicsimulator.core.LogicCircuit;
+import logicsimulator.core.LogicCircuitSimulation;
+import logicsimulator.core.Point;
+import logicsimulator.core.gate.GateType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Änderungen an der Schaltung. Wie viel Speicher dabei angelegt wird, zeigt der GC-Profiler
+// ("gradle :benchmark:jmh -Pjmh.includes=EditBenchmark -Pjmh.profilers=gc", Spalte "gc.alloc.rate.norm").
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EditBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private BenchmarkCircuit circuit;
+    private Point input, output;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.create(Shape.RANDOM, size);
+        input = circuit.inputs().get(0);
+        output = circuit.outputs().get(circuit.outputs().size() - 1);
+        circuit.circuit().getOutputAt(output);
+    }
+
+    // Ein OR-Gatter, dessen "size" Eingänge einzeln verbunden werden (wie beim Bearbeiten in der Oberfläche)
+    @Benchmark
+    public LogicCircuit wireWideGate() {
+        LogicCircuit wideGate = new LogicCircuitSimulation();
+        Point gate = new Point(1, 0);
+        wideGate.addGate(gate, GateType.OR);
+        for (int i = 0; i < size; i++) {
+            Point pos = new Point(0, i);
+            wideGate.addGate(pos, GateType.INPUT);
+            wideGate.connect(pos, gate);
+        }
+        return wideGate;
+    }
+
+    // Eingang umschalten und einen Ausgang neu berechnen (die kompilierte Schaltung bleibt dabei erhalten)
+    @Benchmark
+    public boolean toggleInput() {
+        circuit.circuit().interactWith(input);
+        return circuit.circuit().getOutputAt(output);
+    }
+}
@@ -0,0 +1,55 @@
+package logicsimulator.benchmark;
+
+import logicsimulator.benchmark.BenchmarkCircuits.BenchmarkCircuit;
+import logicsimulator.benchmark.BenchmarkCircuits.Shape;
+import logicsimulator.core.Point;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Auswertung der Ausgänge nach dem Umschalten eines Eingangs (dadurch werden alle zwischengespeicherten Werte ungültig)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GateEvaluationBenchmark {
+    @Param({"CHAIN", "TREE", "ADDER", "RANDOM"})
+    public Shape shape;
+
+    // Gate.getOutput() arbeitet rekursiv, bei längeren Ketten reicht der Stack nicht aus
+    @Param({"100", "300"})
+    public int size;
+
+    private BenchmarkCircuit circuit;
+    private Point input;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.create(shape, size);
+        input = circuit.inputs().get(0);
+    }
+
+    // Rekursive Auswertung über Gate.getOutput() mit dem Zwischenspeicher der Schaltung
+    @Benchmark
+    public int getOutput() {
+        circuit.circuit().interactWith(input);
+        int trueCount = 0;
+        for (Point output : circuit.outputs()) {
+            if (circuit.circuit().getGateAt(output).getOutput()) trueCount++;
+        }
+        return trueCount;
+    }
+
+    // Auswertung über die kompilierte Schaltung
+    @Benchmark
+    public int getOutputAt() {
+        circuit.circuit().interactWith(input);
+        int trueCount = 0;
+        for (Point output : circuit.outputs()) {
+            if (circuit.circuit().getOutputAt(output)) trueCount++;
+        }
+        return trueCount;
+    }
+}
@@ -0,0 +1,64 @@
+package logicsimulator.benchmark;
+
+import logicsimulator.benchmark.BenchmarkCircuits.BenchmarkCircuit;
+import logicsimulator.benchmark.BenchmarkCircuits.Shape;
+import logicsimulator.core.Point;
+import logicsimulator.core.TableOfValues;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Erzeugung von Wertetabellen und disjunktiven Normalformen
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableOfValuesBenchmark {
+    @Param({"CHAIN", "TREE", "ADDER", "RANDOM"})
+    public Shape shape;
+
+    // Beim Addierer ist die Anzahl der Eingänge doppelt so groß (die Tabelle hat also bis zu 2^16 Zeilen, die
+    // disjunktive Normalform entsprechend viele Terme)
+    @Param({"4", "8"})
+    public int size;
+
+    private BenchmarkCircuit circuit;
+    private TableOfValues table;
+    private Point output, source;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.create(shape, size);
+        output = circuit.outputs().get(circuit.outputs().size() - 1);
+        source = circuit.circuit().getGateAt(output).getInputs().get(0);
+        circuit.circuit().toggleSelection(output);
+        table = circuit.circuit().getTableOfValues().orElseThrow();
+    }
+
+    // Die Wertetabellen werden zwischengespeichert, daher wird vorher jedes Mal die Verbindung des letzten Ausgangs neu
+    // hergestellt (an dieselbe Stelle). Dadurch wird auch die kompilierte Schaltung neu erzeugt.
+    private void reconnect() {
+        circuit.circuit().connect(source, output);
+    }
+
+    // Wertetabelle des ausgewählten Gatters (mit der booleschen Funktion als Spaltenname)
+    @Benchmark
+    public TableOfValues getTableOfValues() {
+        reconnect();
+        return circuit.circuit().getTableOfValues().orElseThrow();
+    }
+
+    // Alle Ausgänge in einem Durchlauf
+    @Benchmark
+    public TableOfValues getOutputTableOfValues() {
+        reconnect();
+        return circuit.circuit().getOutputTableOfValues().orElseThrow();
+    }
+
+    @Benchmark
+    public String getDisjunctiveNormalForm() {
+        return table.getDisjunctiveNormalForm(0);
+    }
+}